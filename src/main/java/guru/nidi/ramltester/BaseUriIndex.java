@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.util.UriComponents;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * An index of base URIs: a map of the hosts and a tree of the path segments.
+ * The definition with the longest matching base path wins, literal segments win over variables.
+ * A base URI with a port only matches requests to this port and wins over a base URI without port,
+ * the scheme is not used.
+ */
+class BaseUriIndex {
+    private final Map<String, BaseUriNode> hosts = new HashMap<>();
+    private final List<TemplateHost> templateHosts = new ArrayList<>();
+
+    public void add(String baseUri, RamlDefinition definition) {
+        final UriComponents uri = UriComponents.fromHttpUrl(baseUri);
+        BaseUriNode node = hostNode(hostKey(uri.getHost(), uri.getPort()), uri.getPort() != null);
+        for (final String segment : UriComponents.pathSegments(uri.getPath())) {
+            node = node.child(segment);
+        }
+        if (!node.register(definition)) {
+            throw new IllegalArgumentException("Another raml is already registered under the base URI '" + baseUri + "'");
+        }
+    }
+
+    public RamlDefinition find(String url) {
+        final UriComponents uri = UriComponents.fromHttpUrl(url);
+        final String host = hostKey(uri.getHost(), null);
+        final String hostWithPort = hostKey(uri.getHost(), port(uri));
+        final List<String> segments = UriComponents.pathSegments(uri.getPath());
+        BaseUriMatch best = null;
+        for (final String key : new String[]{hostWithPort, host}) {
+            final BaseUriNode hostNode = hosts.get(key);
+            if (hostNode != null) {
+                best = BaseUriMatch.better(best, hostNode.find(segments, 0));
+            }
+        }
+        for (final TemplateHost templateHost : templateHosts) {
+            final BaseUriMatch match = templateHost.find(host, hostWithPort, segments);
+            best = BaseUriMatch.better(best, match);
+        }
+        return best == null ? null : best.getDefinition();
+    }
+
+    private BaseUriNode hostNode(String host, boolean withPort) {
+        if (isTemplate(host)) {
+            for (final TemplateHost templateHost : templateHosts) {
+                if (templateHost.isFor(host)) {
+                    return templateHost.getNode();
+                }
+            }
+            final TemplateHost templateHost = new TemplateHost(host, withPort);
+            templateHosts.add(templateHost);
+            return templateHost.getNode();
+        }
+        BaseUriNode node = hosts.get(host);
+        if (node == null) {
+            node = new BaseUriNode();
+            hosts.put(host, node);
+        }
+        return node;
+    }
+
+    private static String hostKey(String host, Integer port) {
+        final String lower = host.toLowerCase(Locale.ENGLISH);
+        return port == null ? lower : (lower + ":" + port);
+    }
+
+    private static Integer port(UriComponents uri) {
+        if (uri.getPort() != null) {
+            return uri.getPort();
+        }
+        return "https".equals(uri.getScheme()) ? 443 : 80;
+    }
+
+    static boolean isTemplate(String s) {
+        return s.indexOf('{') >= 0;
+    }
+
+    /**
+     * @return a pattern matching the template, variables match everything.
+     */
+    static Pattern templatePattern(String template) {
+        final StringBuilder regex = new StringBuilder();
+        int pos = 0;
+        while (pos < template.length()) {
+            final int open = template.indexOf('{', pos);
+            final int close = open < 0 ? -1 : template.indexOf('}', open);
+            if (close < 0) {
+                regex.append(Pattern.quote(template.substring(pos)));
+                break;
+            }
+            regex.append(Pattern.quote(template.substring(pos, open))).append(".*?");
+            pos = close + 1;
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static class TemplateHost {
+        private final String template;
+        private final Pattern pattern;
+        private final boolean withPort;
+        private final BaseUriNode node = new BaseUriNode();
+
+        public TemplateHost(String template, boolean withPort) {
+            this.template = template;
+            this.pattern = templatePattern(template);
+            this.withPort = withPort;
+        }
+
+        public boolean isFor(String host) {
+            return template.equals(host);
+        }
+
+        public BaseUriNode getNode() {
+            return node;
+        }
+
+        public BaseUriMatch find(String host, String hostWithPort, List<String> segments) {
+            return pattern.matcher(withPort ? hostWithPort : host).matches() ? node.find(segments, 0) : null;
+        }
+    }
+}
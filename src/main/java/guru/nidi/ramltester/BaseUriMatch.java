@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+/**
+ * A definition found in the {@link BaseUriIndex} with the length of its base path and the number of variables used.
+ */
+final class BaseUriMatch {
+    private final RamlDefinition definition;
+    private final int depth;
+    private final int variables;
+
+    public BaseUriMatch(RamlDefinition definition, int depth, int variables) {
+        this.definition = definition;
+        this.depth = depth;
+        this.variables = variables;
+    }
+
+    public RamlDefinition getDefinition() {
+        return definition;
+    }
+
+    public BaseUriMatch withVariable() {
+        return new BaseUriMatch(definition, depth, variables + 1);
+    }
+
+    public static BaseUriMatch better(BaseUriMatch a, BaseUriMatch b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.depth != b.depth) {
+            return a.depth > b.depth ? a : b;
+        }
+        return a.variables <= b.variables ? a : b;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A path segment of a base URI in the {@link BaseUriIndex}.
+ */
+class BaseUriNode {
+    private final Map<String, BaseUriNode> literals = new HashMap<>();
+    private final Map<String, BaseUriNode> templates = new LinkedHashMap<>();
+    private final Map<String, Pattern> patterns = new HashMap<>();
+    private RamlDefinition definition;
+
+    public BaseUriNode child(String segment) {
+        final boolean template = BaseUriIndex.isTemplate(segment);
+        final Map<String, BaseUriNode> children = template ? templates : literals;
+        BaseUriNode child = children.get(segment);
+        if (child == null) {
+            child = new BaseUriNode();
+            children.put(segment, child);
+            if (template) {
+                patterns.put(segment, BaseUriIndex.templatePattern(segment));
+            }
+        }
+        return child;
+    }
+
+    /**
+     * @param definition the definition to register at this node
+     * @return false if another definition is already registered at this node
+     */
+    public boolean register(RamlDefinition definition) {
+        if (this.definition != null && this.definition != definition) {
+            return false;
+        }
+        this.definition = definition;
+        return true;
+    }
+
+    public BaseUriMatch find(List<String> segments, int depth) {
+        BaseUriMatch best = definition == null ? null : new BaseUriMatch(definition, depth, 0);
+        if (depth < segments.size()) {
+            final String segment = segments.get(depth);
+            final BaseUriNode literal = literals.get(segment);
+            if (literal != null) {
+                best = BaseUriMatch.better(best, literal.find(segments, depth + 1));
+            }
+            for (final Map.Entry<String, BaseUriNode> template : templates.entrySet()) {
+                if (patterns.get(template.getKey()).matcher(segment).matches()) {
+                    final BaseUriMatch match = template.getValue().find(segments, depth + 1);
+                    best = BaseUriMatch.better(best, match == null ? null : match.withVariable());
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -16,16 +16,24 @@
 package guru.nidi.ramltester;
 
 import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.httpcomponents.RamlHttpAsyncClient;
 import guru.nidi.ramltester.httpcomponents.RamlHttpClient;
 import guru.nidi.ramltester.jaxrs.CheckingWebTarget;
 import guru.nidi.ramltester.model.RamlRequest;
 import guru.nidi.ramltester.model.RamlResponse;
+import guru.nidi.ramltester.offline.BatchChecker;
+import guru.nidi.ramltester.offline.TrafficLog;
+import guru.nidi.ramltester.proxy.RamlProxy;
+import guru.nidi.ramltester.proxy.RamlStubServer;
 import guru.nidi.ramltester.restassured.RestAssuredClient;
 import guru.nidi.ramltester.servlet.ServletTester;
+import guru.nidi.ramltester.spring.RamlAsyncRestTemplate;
 import guru.nidi.ramltester.spring.RamlMatcher;
 import guru.nidi.ramltester.spring.RamlRestTemplate;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
 import org.raml.model.Raml;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.client.RestTemplate;
@@ -36,6 +44,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.ws.rs.client.WebTarget;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 /**
  *
@@ -88,10 +97,34 @@ public class RamlDefinition {
         return new RamlDefinition(config.failFast(failFast));
     }
 
+    public RamlDefinition limitingBodySize(int maxBodySize) {
+        return new RamlDefinition(config.limitingBodySize(maxBodySize));
+    }
+
+    public RamlDefinition limitingViolations(int maxViolations) {
+        return new RamlDefinition(config.limitingViolations(maxViolations));
+    }
+
+    public RamlDefinition limitingCheckTime(long maxCheckMillis) {
+        return new RamlDefinition(config.limitingCheckTime(maxCheckMillis));
+    }
+
+    public RamlDefinition cachingRequests(int maxEntries, String... volatileHeaders) {
+        return new RamlDefinition(config.cachingRequests(maxEntries, volatileHeaders));
+    }
+
+    public RamlDefinition checkingOnly(CheckPhase... phases) {
+        return new RamlDefinition(config.checkingOnly(phases));
+    }
+
     public Raml getRaml() {
         return config.raml;
     }
 
+    CheckerConfig getConfig() {
+        return config;
+    }
+
     public RamlReport testAgainst(RamlRequest request, RamlResponse response) {
         return createTester().check(request, response);
     }
@@ -116,6 +149,10 @@ public class RamlDefinition {
         return new RamlRestTemplate(createTester(), restTemplate);
     }
 
+    public RamlAsyncRestTemplate createAsyncRestTemplate(AsyncClientHttpRequestFactory requestFactory) {
+        return new RamlAsyncRestTemplate(config, requestFactory);
+    }
+
     public RamlHttpClient createHttpClient() {
         return new RamlHttpClient(createTester());
     }
@@ -124,6 +161,14 @@ public class RamlDefinition {
         return new RamlHttpClient(createTester(), httpClient);
     }
 
+    public RamlHttpAsyncClient createHttpAsyncClient() {
+        return new RamlHttpAsyncClient(config);
+    }
+
+    public RamlHttpAsyncClient createHttpAsyncClient(CloseableHttpAsyncClient httpAsyncClient) {
+        return new RamlHttpAsyncClient(config, httpAsyncClient);
+    }
+
     public RestAssuredClient createRestAssured() {
         return new RestAssuredClient(createTester());
     }
@@ -133,7 +178,68 @@ public class RamlDefinition {
     }
 
     public CheckingWebTarget createWebTarget(WebTarget target) {
-        return new CheckingWebTarget(createTester(), target);
+        return new CheckingWebTarget(config, target);
+    }
+
+    public BatchChecker createBatchChecker() {
+        return new BatchChecker(config);
+    }
+
+    /**
+     * Start a reverse proxy that checks all traffic to the target.
+     *
+     * @param port       the port of the proxy, 0 for any free port
+     * @param target     the URL of the server to forward the requests to
+     * @param aggregator receives the reports
+     * @return the running proxy
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlProxy startProxy(int port, String target, ReportAggregator aggregator) throws IOException {
+        return new RamlProxy(config, port, target, aggregator);
+    }
+
+    /**
+     * Start a server that answers all requests with the examples of the raml.
+     *
+     * @param port the port of the server, 0 for any free port
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlStubServer startStubServer(int port) throws IOException {
+        return new RamlStubServer(config, port, null);
+    }
+
+    /**
+     * Start a server that answers all requests with the examples of the raml and checks the requests.
+     *
+     * @param port       the port of the server, 0 for any free port
+     * @param aggregator receives the reports of the requests
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlStubServer startStubServer(int port, ReportAggregator aggregator) throws IOException {
+        return new RamlStubServer(config, port, aggregator);
+    }
+
+    /**
+     * Start a server that answers all requests with the examples of the raml and checks the requests.
+     *
+     * @param port           the port of the server, 0 for any free port
+     * @param aggregator     receives the reports of the requests, null to not check the requests
+     * @param maxConnections the maximum number of concurrently served connections, further connections wait
+     * @return the running server
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlStubServer startStubServer(int port, ReportAggregator aggregator, int maxConnections) throws IOException {
+        return new RamlStubServer(config, port, aggregator, maxConnections);
+    }
+
+    /**
+     * @param log the log to record the exchanges to
+     * @return a checker that only records the exchanges, use a {@link BatchChecker} to check them later
+     */
+    public RamlChecker createRecorder(TrafficLog log) {
+        return log.createRecorder(config);
     }
 
     public RamlChecker createTester() {
@@ -147,5 +253,13 @@ public class RamlDefinition {
     public RamlReport validate() {
         return validator().validate();
     }
+
+    public RamlReport validate(ExecutorService executor) {
+        return validator().validate(executor);
+    }
+
+    public RamlReport validate(RamlValidationCache cache) {
+        return validator().validate(cache);
+    }
 }
 
@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.RamlResponse;
+import guru.nidi.ramltester.util.Message;
+import org.raml.model.Action;
+import org.raml.model.Raml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Finds the {@link RamlDefinition} responsible for a request by its base URI.
+ * All base URIs are kept in one index: a map of the hosts and a tree of the path segments,
+ * so a request is dispatched with one lookup instead of trying every definition.
+ * The definition with the longest matching base path wins, literal segments win over variables.
+ * A base URI with a port only matches requests to this port and wins over a base URI without port,
+ * the scheme is not used to dispatch.
+ * Register all definitions before using the registry from multiple threads.
+ */
+public class RamlDefinitionRegistry {
+    private static final Raml UNMATCHED = unmatchedRaml();
+
+    private final BaseUriIndex index = new BaseUriIndex();
+    private ReportAggregator unmatched = new DummyReportAggragator();
+    private String baseUri;
+    private boolean includeServletPath;
+
+    private static Raml unmatchedRaml() {
+        final Raml raml = new Raml();
+        raml.setTitle("Unmatched requests");
+        return raml;
+    }
+
+    /**
+     * Register a definition under the baseUri of its raml.
+     *
+     * @param definition the definition
+     * @return this
+     * @throws IllegalArgumentException if the raml has no baseUri or another definition is registered under the same base URI
+     */
+    public RamlDefinitionRegistry add(RamlDefinition definition) {
+        final String baseUri = definition.getRaml().getBaseUri();
+        if (baseUri == null) {
+            throw new IllegalArgumentException("Raml '" + definition.getRaml().getTitle() + "' has no baseUri");
+        }
+        return add(baseUri, definition);
+    }
+
+    /**
+     * Register a definition.
+     *
+     * @param baseUri    the base URI, it can contain variables like <code>http://{host}.guru/api/{version}</code>
+     * @param definition the definition
+     * @return this
+     * @throws IllegalArgumentException if another definition is registered under the same base URI
+     */
+    public RamlDefinitionRegistry add(String baseUri, RamlDefinition definition) {
+        index.add(baseUri, definition);
+        return this;
+    }
+
+    /**
+     * Dispatch and check the requests as if they were sent to the given base URI.
+     *
+     * @param baseUri the base URI
+     * @return this
+     * @see RamlDefinition#assumingBaseUri(String)
+     */
+    public RamlDefinitionRegistry assumingBaseUri(String baseUri) {
+        return assumingBaseUri(baseUri, false);
+    }
+
+    /**
+     * Dispatch and check the requests as if they were sent to the given base URI.
+     *
+     * @param baseUri            the base URI
+     * @param includeServletPath if the servlet path should be part of the request path
+     * @return this
+     * @see RamlDefinition#assumingBaseUri(String, boolean)
+     */
+    public RamlDefinitionRegistry assumingBaseUri(String baseUri, boolean includeServletPath) {
+        this.baseUri = baseUri;
+        this.includeServletPath = includeServletPath;
+        return this;
+    }
+
+    /**
+     * Send the reports of requests not matching any definition to the given aggregator.
+     *
+     * @param aggregator the aggregator
+     * @return this
+     */
+    public RamlDefinitionRegistry aggregatingUnmatched(ReportAggregator aggregator) {
+        this.unmatched = aggregator;
+        return this;
+    }
+
+    /**
+     * @param url the URL of a request
+     * @return the definition responsible for the URL or null if there is none
+     */
+    public RamlDefinition find(String url) {
+        return index.find(url);
+    }
+
+    /**
+     * @return a checker that checks every request against the responsible definition.
+     * The reports of requests not matching any definition contain one request violation.
+     */
+    public RamlChecker createTester() {
+        return new DispatchingChecker(baseUri, includeServletPath, unmatched);
+    }
+
+    private class DispatchingChecker extends RamlChecker {
+        private final String baseUri;
+        private final boolean includeServletPath;
+        private final ReportAggregator unmatched;
+        private final ConcurrentMap<RamlDefinition, RamlDefinition> assumed = new ConcurrentHashMap<>();
+
+        public DispatchingChecker(String baseUri, boolean includeServletPath, ReportAggregator unmatched) {
+            super(new CheckerConfig(UNMATCHED, null, baseUri, includeServletPath, false, false));
+            this.baseUri = baseUri;
+            this.includeServletPath = includeServletPath;
+            this.unmatched = unmatched;
+        }
+
+        @Override
+        public RamlReport check(RamlRequest request, RamlResponse response) {
+            final String url = request.getRequestUrl(baseUri, includeServletPath);
+            final RamlDefinition definition = find(url);
+            if (definition == null) {
+                final RamlReport report = new RamlReport(UNMATCHED);
+                report.getRequestViolations().add(new Message("registry.unmatched", url));
+                synchronized (unmatched) {
+                    return unmatched.addReport(report);
+                }
+            }
+            return assuming(definition).createTester().check(request, response);
+        }
+
+        @Override
+        public Action findAction(RamlRequest request) {
+            final RamlDefinition definition = find(request.getRequestUrl(baseUri, includeServletPath));
+            return definition == null ? null : assuming(definition).createTester().findAction(request);
+        }
+
+        private RamlDefinition assuming(RamlDefinition definition) {
+            if (baseUri == null) {
+                return definition;
+            }
+            final RamlDefinition existing = assumed.get(definition);
+            if (existing != null) {
+                return existing;
+            }
+            final RamlDefinition created = definition.assumingBaseUri(baseUri, includeServletPath);
+            final RamlDefinition raced = assumed.putIfAbsent(definition, created);
+            return raced == null ? created : raced;
+        }
+    }
+}
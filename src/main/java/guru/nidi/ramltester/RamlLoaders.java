@@ -27,8 +27,13 @@ import guru.nidi.loader.use.raml.LoaderRamlResourceLoader;
 import guru.nidi.loader.use.raml.RamlCache;
 import guru.nidi.ramltester.core.SchemaValidator;
 import org.raml.model.Raml;
+import org.raml.parser.loader.ResourceLoader;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.*;
 
 /**
  *
@@ -37,15 +42,34 @@ public class RamlLoaders {
     private final Loader loader;
     private final SchemaValidators schemaValidators;
     private final boolean caching;
+    private final File snapshotDirectory;
+    private final List<File> sourceDirectories;
+    private final List<String> sourcePackages;
 
     public RamlLoaders(Loader loader, SchemaValidators schemaValidators, boolean caching) {
+        this(loader, schemaValidators, caching, null);
+    }
+
+    public RamlLoaders(Loader loader, SchemaValidators schemaValidators, boolean caching, File snapshotDirectory) {
+        this(loader, schemaValidators, caching, snapshotDirectory, Collections.<File>emptyList(), Collections.<String>emptyList());
+    }
+
+    private RamlLoaders(Loader loader, SchemaValidators schemaValidators, boolean caching, File snapshotDirectory,
+                        List<File> sourceDirectories, List<String> sourcePackages) {
         this.loader = loader;
         this.schemaValidators = schemaValidators;
         this.caching = caching;
+        this.snapshotDirectory = snapshotDirectory;
+        this.sourceDirectories = sourceDirectories;
+        this.sourcePackages = sourcePackages;
+    }
+
+    private static String packagePath(Class<?> basePackage) {
+        return basePackage.getPackage().getName().replace('.', '/');
     }
 
     private static Loader classpathLoader(Class<?> basePackage) {
-        return classpathLoader(basePackage.getPackage().getName().replace('.', '/'));
+        return classpathLoader(packagePath(basePackage));
     }
 
     private static Loader classpathLoader(String basePackage) {
@@ -80,23 +104,23 @@ public class RamlLoaders {
     }
 
     public static RamlLoaders fromClasspath(Class<?> basePackage) {
-        return using(classpathLoader(basePackage));
+        return using(classpathLoader(basePackage)).withClasspathSources(packagePath(basePackage));
     }
 
     public static RamlLoaders fromClasspath(String basePackage) {
-        return using(classpathLoader(basePackage));
+        return using(classpathLoader(basePackage)).withClasspathSources(basePackage);
     }
 
     public static RamlLoaders fromClasspath() {
-        return using(classpathLoader(""));
+        return using(classpathLoader("")).withClasspathSources("");
     }
 
     public static RamlLoaders fromFile(File baseDirectory) {
-        return using(fileLoader(baseDirectory));
+        return using(fileLoader(baseDirectory)).withSource(baseDirectory);
     }
 
     public static RamlLoaders fromFile(String baseDirectory) {
-        return using(fileLoader(baseDirectory));
+        return using(fileLoader(baseDirectory)).withSource(new File(baseDirectory));
     }
 
     public static RamlLoaders fromUrl(String baseUrl) {
@@ -143,19 +167,19 @@ public class RamlLoaders {
 
 
     public RamlLoaders andFromClasspath(Class<?> basePackage) {
-        return andUsing(classpathLoader(basePackage));
+        return andUsing(classpathLoader(basePackage)).withClasspathSources(packagePath(basePackage));
     }
 
     public RamlLoaders andFromClasspath(String basePackage) {
-        return andUsing(classpathLoader(basePackage));
+        return andUsing(classpathLoader(basePackage)).withClasspathSources(basePackage);
     }
 
     public RamlLoaders andFromFile(File baseDirectory) {
-        return andUsing(fileLoader(baseDirectory));
+        return andUsing(fileLoader(baseDirectory)).withSource(baseDirectory);
     }
 
     public RamlLoaders andFromFile(String baseDirectory) {
-        return andUsing(fileLoader(baseDirectory));
+        return andUsing(fileLoader(baseDirectory)).withSource(new File(baseDirectory));
     }
 
     public RamlLoaders andFromUrl(String baseUrl) {
@@ -179,18 +203,87 @@ public class RamlLoaders {
     }
 
     public RamlLoaders andUsing(Loader loader) {
-        return new RamlLoaders(new CompositeLoader(this.loader, loader), schemaValidators, caching);
+        return new RamlLoaders(new CompositeLoader(this.loader, loader), schemaValidators, caching, snapshotDirectory, sourceDirectories, sourcePackages);
     }
 
     public RamlLoaders addSchemaValidator(SchemaValidator schemaValidator) {
-        return new RamlLoaders(loader, schemaValidators.addSchemaValidator(schemaValidator), caching);
+        return new RamlLoaders(loader, schemaValidators.addSchemaValidator(schemaValidator), caching, snapshotDirectory, sourceDirectories, sourcePackages);
+    }
+
+    private RamlLoaders withSource(File directory) {
+        final List<File> sources = new ArrayList<>(sourceDirectories);
+        sources.add(directory);
+        return new RamlLoaders(loader, schemaValidators, caching, snapshotDirectory, sources, sourcePackages);
+    }
+
+    private RamlLoaders withClasspathSources(String basePackage) {
+        final List<String> packages = new ArrayList<>(sourcePackages);
+        packages.add(basePackage);
+        return new RamlLoaders(loader, schemaValidators, caching, snapshotDirectory, sourceDirectories, packages);
+    }
+
+    /**
+     * The classpath is only searched here, as just reloading needs the directories.
+     * Of a classpath source, only the directory the raml is found in is used, not all classpath roots.
+     * Classpath resources inside a jar are ignored.
+     *
+     * @param name the raml to be loaded
+     * @return the local directories the raml is loaded from.
+     */
+    List<File> getSourceDirectories(String name) {
+        final List<File> dirs = new ArrayList<>(sourceDirectories);
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader() == null
+                ? RamlLoaders.class.getClassLoader()
+                : Thread.currentThread().getContextClassLoader();
+        for (final String basePackage : sourcePackages) {
+            final String path = basePackage.length() == 0 || basePackage.endsWith("/") ? basePackage : (basePackage + "/");
+            final URL url = classLoader.getResource(path + name);
+            if (url != null && "file".equals(url.getProtocol())) {
+                try {
+                    File dir = new File(url.toURI()).getParentFile();
+                    for (int pos = name.indexOf('/'); pos >= 0; pos = name.indexOf('/', pos + 1)) {
+                        dir = dir.getParentFile();
+                    }
+                    dirs.add(dir);
+                } catch (URISyntaxException e) {
+                    //the directories are only needed for reloading, the loader is not affected
+                }
+            }
+        }
+        return dirs;
+    }
+
+    /**
+     * Store the parsed raml in the given directory and reuse it in later loads, also from other JVMs.
+     * The snapshot is only used if the raml and all its includes are unchanged.
+     *
+     * @param directory the directory to store the snapshots in
+     * @return a new RamlLoaders using snapshots
+     */
+    public RamlLoaders snapshotsIn(File directory) {
+        return new RamlLoaders(loader, schemaValidators, caching, directory, sourceDirectories, sourcePackages);
+    }
+
+    public RamlLoaders snapshotsIn(String directory) {
+        return snapshotsIn(new File(directory));
     }
 
-    public RamlDefinition load(String name) {
+    public RamlDefinition load(final String name) {
         final Loader decorated = new UriLoader(loader);
-        final Raml raml = caching
-                ? new RamlCache(decorated).loadRaml(name)
-                : new RelativeJsonSchemaAwareRamlDocumentBuilder(decorated, new LoaderRamlResourceLoader(decorated)).build(name);
+        final Raml raml;
+        if (caching) {
+            raml = new RamlCache(decorated).loadRaml(name);
+        } else if (snapshotDirectory == null) {
+            raml = new RelativeJsonSchemaAwareRamlDocumentBuilder(decorated, new LoaderRamlResourceLoader(decorated)).build(name);
+        } else {
+            raml = new RamlSnapshots(snapshotDirectory).load(decorated.config(), name, decorated.getClass().getSimpleName(),
+                    new LoaderRamlResourceLoader(decorated), new RamlSnapshots.Parser() {
+                        @Override
+                        public Raml parse(ResourceLoader resourceLoader) {
+                            return new RelativeJsonSchemaAwareRamlDocumentBuilder(decorated, resourceLoader).build(name);
+                        }
+                    });
+        }
         final SchemaValidators validators = schemaValidators.withloader(decorated);
         return new RamlDefinition(raml, validators);
     }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+/**
+ * Is informed when a {@link ReloadingRamlDefinition} reloads its raml.
+ * The methods are called from the reloading thread.
+ */
+public interface RamlReloadListener {
+    void reloaded(RamlDefinition definition, long millis);
+
+    /**
+     * The raml could not be loaded, the previous definition stays in use.
+     *
+     * @param cause  the reason
+     * @param millis the time spent trying to load the raml
+     */
+    void reloadFailed(RuntimeException cause, long millis);
+}
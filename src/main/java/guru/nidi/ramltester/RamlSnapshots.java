@@ -0,0 +1,219 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlCheckerException;
+import guru.nidi.ramltester.util.IoUtils;
+import org.raml.model.Raml;
+import org.raml.parser.loader.ResourceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Stores loaded {@link Raml}s in a directory, so that other JVMs don't have to parse them again.
+ * A snapshot contains the names and digests of all resources read while parsing.
+ * It is only used if all of them still have the same content, otherwise the raml is parsed and the snapshot rewritten.
+ */
+final class RamlSnapshots {
+    private static final Logger log = LoggerFactory.getLogger(RamlSnapshots.class);
+
+    private static final int MAGIC = 0x52414d4c;
+    private static final int FORMAT_VERSION = 1;
+    private static final String DIGEST = "SHA-256";
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    private final File directory;
+
+    RamlSnapshots(File directory) {
+        this.directory = directory;
+    }
+
+    interface Parser {
+        Raml parse(ResourceLoader resourceLoader);
+    }
+
+    /**
+     * @param source         identifies the loader, the same name from another loader gets another snapshot
+     * @param name           the name of the raml
+     * @param protocol       the protocol used for relative json schema references, it becomes part of the parsed raml
+     * @param resourceLoader the loader for the raml and its includes
+     * @param parser         parses the raml if there is no valid snapshot
+     * @return the raml
+     */
+    Raml load(String source, String name, String protocol, ResourceLoader resourceLoader, Parser parser) {
+        final String key = source + ":" + protocol + ":" + name;
+        final File file = new File(directory, hex(digest(key.getBytes(UTF_8))) + ".snapshot");
+        if (file.isFile()) {
+            final Raml raml = read(file, resourceLoader);
+            if (raml != null) {
+                return raml;
+            }
+        }
+        final RecordingResourceLoader recording = new RecordingResourceLoader(resourceLoader);
+        final Raml raml = parser.parse(recording);
+        write(file, recording.digests, raml);
+        return raml;
+    }
+
+    private Raml read(File file, ResourceLoader resourceLoader) {
+        try (final FileInputStream in = new FileInputStream(file);
+             final FileChannel channel = in.getChannel();
+             final ObjectInputStream ois = new ObjectInputStream(
+                     new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())))) {
+            if (ois.readInt() != MAGIC || ois.readInt() != FORMAT_VERSION || !parserVersion().equals(ois.readUTF())) {
+                log.debug("Snapshot '{}' has another version, ignoring it", file);
+                return null;
+            }
+            final int resources = ois.readInt();
+            for (int i = 0; i < resources; i++) {
+                final String resource = ois.readUTF();
+                final byte[] expected = (byte[]) ois.readObject();
+                if (!Arrays.equals(expected, fetchDigest(resourceLoader, resource))) {
+                    log.debug("Resource '{}' has changed, ignoring snapshot '{}'", resource, file);
+                    return null;
+                }
+            }
+            return (Raml) ois.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.warn("Could not read snapshot '{}', parsing raml: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    private void write(File file, Map<String, byte[]> digests, Raml raml) {
+        File temp = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("Could not create directory '" + directory + "'");
+            }
+            temp = File.createTempFile("raml", ".tmp", directory);
+            try (final ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(parserVersion());
+                out.writeInt(digests.size());
+                for (final Map.Entry<String, byte[]> entry : digests.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeObject(entry.getValue());
+                }
+                out.writeObject(raml);
+            }
+            replace(temp, file);
+        } catch (IOException e) {
+            log.warn("Could not write snapshot '{}': {}", file, e.toString());
+            if (temp != null && !temp.delete()) {
+                temp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * A reader sees either the old or the new snapshot, except on systems that cannot rename onto an existing file.
+     * There, a reader can find no snapshot at all for a moment and just parses the raml.
+     */
+    private static void replace(File temp, File file) throws IOException {
+        if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+            throw new IOException("Could not rename '" + temp + "' to '" + file + "'");
+        }
+    }
+
+    private static byte[] fetchDigest(ResourceLoader resourceLoader, String name) throws IOException {
+        final InputStream in = resourceLoader.fetchResource(name);
+        return in == null ? null : digest(IoUtils.readIntoByteArray(in));
+    }
+
+    private static String parserVersion() {
+        final String version = Raml.class.getPackage().getImplementationVersion();
+        return version == null ? "" : version;
+    }
+
+    private static byte[] digest(byte[] data) {
+        try {
+            return MessageDigest.getInstance(DIGEST).digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        final StringBuilder s = new StringBuilder(bytes.length * 2);
+        for (final byte b : bytes) {
+            s.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return s.toString();
+    }
+
+    private static class RecordingResourceLoader implements ResourceLoader {
+        private final ResourceLoader delegate;
+        private final Map<String, byte[]> digests = new LinkedHashMap<>();
+
+        public RecordingResourceLoader(ResourceLoader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public InputStream fetchResource(String resourceName) {
+            final InputStream in = delegate.fetchResource(resourceName);
+            if (in == null) {
+                digests.put(resourceName, null);
+                return null;
+            }
+            try {
+                final byte[] data = IoUtils.readIntoByteArray(in);
+                digests.put(resourceName, digest(data));
+                return new ByteArrayInputStream(data);
+            } catch (IOException e) {
+                throw new RamlCheckerException("Could not load resource '" + resourceName + "'", e);
+            }
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        public ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
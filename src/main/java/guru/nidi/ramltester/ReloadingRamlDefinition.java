@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.CheckPhase;
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.core.RamlChecker;
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.RamlResponse;
+import org.raml.model.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A raml definition that is reloaded in the background whenever a file in the directories of its {@link RamlLoaders} changes.
+ * The directories are polled for changes, so a change is noticed after about a second.
+ * Every check uses the definition that is current when the check starts, so a reload never affects running checks.
+ * If the new raml cannot be loaded, the old definition stays in use.
+ * Only {@link RamlLoaders#fromFile(File)} and {@link RamlLoaders#fromClasspath(String)} sources outside of jars are watched.
+ */
+public class ReloadingRamlDefinition implements Closeable {
+    private final Source source;
+    private final CheckerConfig options;
+
+    public ReloadingRamlDefinition(RamlLoaders loaders, String name) {
+        this(new Source(loaders, name), new CheckerConfig(null, null));
+        source.start();
+    }
+
+    private ReloadingRamlDefinition(Source source, CheckerConfig options) {
+        this.source = source;
+        this.options = options;
+    }
+
+    public ReloadingRamlDefinition assumingBaseUri(String baseUri) {
+        return new ReloadingRamlDefinition(source, options.assumingBaseUri(baseUri));
+    }
+
+    public ReloadingRamlDefinition assumingBaseUri(String baseUri, boolean includeServletPath) {
+        return new ReloadingRamlDefinition(source, options.assumingBaseUri(baseUri, includeServletPath));
+    }
+
+    public ReloadingRamlDefinition ignoringXheaders() {
+        return ignoringXheaders(true);
+    }
+
+    public ReloadingRamlDefinition ignoringXheaders(boolean ignoreXheaders) {
+        return new ReloadingRamlDefinition(source, options.ignoringXheaders(ignoreXheaders));
+    }
+
+    public ReloadingRamlDefinition includeServletPath() {
+        return includeServletPath(true);
+    }
+
+    public ReloadingRamlDefinition includeServletPath(boolean includeServletPath) {
+        return new ReloadingRamlDefinition(source, options.includeServletPath(includeServletPath));
+    }
+
+    public ReloadingRamlDefinition failFast() {
+        return failFast(true);
+    }
+
+    public ReloadingRamlDefinition failFast(boolean failFast) {
+        return new ReloadingRamlDefinition(source, options.failFast(failFast));
+    }
+
+    public ReloadingRamlDefinition limitingBodySize(int maxBodySize) {
+        return new ReloadingRamlDefinition(source, options.limitingBodySize(maxBodySize));
+    }
+
+    public ReloadingRamlDefinition limitingViolations(int maxViolations) {
+        return new ReloadingRamlDefinition(source, options.limitingViolations(maxViolations));
+    }
+
+    public ReloadingRamlDefinition limitingCheckTime(long maxCheckMillis) {
+        return new ReloadingRamlDefinition(source, options.limitingCheckTime(maxCheckMillis));
+    }
+
+    public ReloadingRamlDefinition cachingRequests(int maxEntries, String... volatileHeaders) {
+        return new ReloadingRamlDefinition(source, options.cachingRequests(maxEntries, volatileHeaders));
+    }
+
+    public ReloadingRamlDefinition checkingOnly(CheckPhase... phases) {
+        return new ReloadingRamlDefinition(source, options.checkingOnly(phases));
+    }
+
+    public ReloadingRamlDefinition addListener(RamlReloadListener listener) {
+        source.listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @return the current definition, it does not change when the raml is reloaded.
+     */
+    public RamlDefinition getDefinition() {
+        final CheckerConfig loaded = source.current.get();
+        return new RamlDefinition(options.withRaml(loaded.raml, loaded.schemaValidators));
+    }
+
+    /**
+     * @return a checker that always uses the current definition and can be given to any of the adapters.
+     */
+    public RamlChecker createTester() {
+        return new ReloadingChecker();
+    }
+
+    /**
+     * Reload the raml now.
+     *
+     * @return if the raml could be loaded
+     */
+    public boolean reload() {
+        return source.reload();
+    }
+
+    /**
+     * Stop watching for changes, this affects all definitions derived from this one.
+     */
+    @Override
+    public void close() {
+        source.close();
+    }
+
+    /**
+     * A checker keeps the state of the running check, so every thread gets its own checker for the current definition.
+     */
+    private class ReloadingChecker extends RamlChecker {
+        private final ThreadLocal<LoadedChecker> loadedChecker = new ThreadLocal<>();
+
+        public ReloadingChecker() {
+            super(options);
+        }
+
+        @Override
+        public RamlReport check(RamlRequest request, RamlResponse response) {
+            return currentChecker().check(request, response);
+        }
+
+        @Override
+        public Action findAction(RamlRequest request) {
+            return currentChecker().findAction(request);
+        }
+
+        private RamlChecker currentChecker() {
+            final CheckerConfig loaded = source.current.get();
+            final LoadedChecker last = loadedChecker.get();
+            if (last != null && last.loaded == loaded) {
+                return last.checker;
+            }
+            final RamlChecker checker = new RamlDefinition(options.withRaml(loaded.raml, loaded.schemaValidators)).createTester();
+            loadedChecker.set(new LoadedChecker(loaded, checker));
+            return checker;
+        }
+    }
+
+    private static class LoadedChecker {
+        private final CheckerConfig loaded;
+        private final RamlChecker checker;
+
+        public LoadedChecker(CheckerConfig loaded, RamlChecker checker) {
+            this.loaded = loaded;
+            this.checker = checker;
+        }
+    }
+
+    private static class Source implements Runnable, Closeable {
+        private static final Logger log = LoggerFactory.getLogger(ReloadingRamlDefinition.class);
+        private static final long POLL_MILLIS = 1000;
+        private static final long QUIET_MILLIS = 100;
+
+        private final RamlLoaders loaders;
+        private final String name;
+        private final AtomicReference<CheckerConfig> current = new AtomicReference<>();
+        private final List<RamlReloadListener> listeners = new CopyOnWriteArrayList<>();
+        private final List<File> directories;
+        private final Map<File, List<Long>> initialFiles;
+        private final Thread thread;
+
+        public Source(RamlLoaders loaders, String name) {
+            this.loaders = loaders;
+            this.name = name;
+            directories = loaders.getSourceDirectories(name);
+            //scan before loading, so that no change after the load is missed
+            initialFiles = scan();
+            current.set(loaders.load(name).getConfig());
+            thread = new Thread(this, "raml-reloader " + name);
+            thread.setDaemon(true);
+        }
+
+        public void start() {
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Map<File, List<Long>> files = initialFiles;
+                while (!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(POLL_MILLIS);
+                    Map<File, List<Long>> changed = scan();
+                    if (!changed.equals(files)) {
+                        //wait until the changes are complete, editors often write several times
+                        do {
+                            files = changed;
+                            Thread.sleep(QUIET_MILLIS);
+                            changed = scan();
+                        } while (!changed.equals(files));
+                        reload();
+                    }
+                }
+            } catch (InterruptedException e) {
+                //closed
+            }
+        }
+
+        private Map<File, List<Long>> scan() {
+            final Map<File, List<Long>> files = new HashMap<>();
+            for (final File dir : directories) {
+                scan(dir, files);
+            }
+            return files;
+        }
+
+        private void scan(File file, Map<File, List<Long>> files) {
+            final File[] children = file.listFiles();
+            if (children == null) {
+                files.put(file, Arrays.asList(file.lastModified(), file.length()));
+            } else {
+                for (final File child : children) {
+                    scan(child, files);
+                }
+            }
+        }
+
+        public synchronized boolean reload() {
+            final long start = System.nanoTime();
+            try {
+                final RamlDefinition definition = loaders.load(name);
+                current.set(definition.getConfig());
+                final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                log.info("Reloaded raml '{}' in {} ms", name, millis);
+                for (final RamlReloadListener listener : listeners) {
+                    listener.reloaded(definition, millis);
+                }
+                return true;
+            } catch (RuntimeException e) {
+                final long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                log.warn("Could not reload raml '{}', keeping the old one: {}", name, e.toString());
+                for (final RamlReloadListener listener : listeners) {
+                    listener.reloadFailed(e, millis);
+                }
+                return false;
+            }
+        }
+
+        @Override
+        public void close() {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.offline.BatchChecker;
+import guru.nidi.ramltester.offline.ExchangeReader;
+import guru.nidi.ramltester.offline.HarReader;
+import guru.nidi.ramltester.offline.NdjsonReader;
+
+import java.io.*;
+
+/**
+ * Checks recorded traffic against a raml from the command line.
+ * <pre>
+ * java guru.nidi.ramltester.TrafficCheck [-threads n] [-baseUri uri] api.raml traffic.har|traffic.ndjson...
+ * </pre>
+ * Exits with 1 if there are violations.
+ */
+public final class TrafficCheck {
+    private TrafficCheck() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        System.exit(run(args, System.out));
+    }
+
+    static int run(String[] args, PrintStream out) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String baseUri = null;
+        int pos = 0;
+        while (pos < args.length - 1 && args[pos].startsWith("-")) {
+            if ("-threads".equals(args[pos])) {
+                threads = Integer.parseInt(args[pos + 1]);
+            } else if ("-baseUri".equals(args[pos])) {
+                baseUri = args[pos + 1];
+            } else {
+                return usage(out);
+            }
+            pos += 2;
+        }
+        if (args.length - pos < 2) {
+            return usage(out);
+        }
+        final PrintingAggregator aggregator = new PrintingAggregator(out);
+        final long checked = check(checker(args[pos], baseUri, threads, aggregator), args, pos + 1);
+        out.println(checked + " exchanges checked, " + aggregator.failed + " with violations.");
+        return aggregator.failed == 0 ? 0 : 1;
+    }
+
+    private static BatchChecker checker(String ramlFile, String baseUri, int threads, ReportAggregator aggregator) {
+        final File raml = new File(ramlFile);
+        final RamlDefinition definition = RamlLoaders.fromFile(raml.getAbsoluteFile().getParentFile()).load(raml.getName());
+        return (baseUri == null ? definition : definition.assumingBaseUri(baseUri))
+                .createBatchChecker().withThreads(threads).aggregating(aggregator);
+    }
+
+    private static long check(BatchChecker checker, String[] files, int from) throws IOException, InterruptedException {
+        long checked = 0;
+        for (int i = from; i < files.length; i++) {
+            try (final ExchangeReader reader = readerFor(new File(files[i]))) {
+                checked += checker.check(reader);
+            }
+        }
+        return checked;
+    }
+
+    private static ExchangeReader readerFor(File file) throws IOException {
+        final InputStream in = new BufferedInputStream(new FileInputStream(file));
+        return file.getName().endsWith(".har") ? new HarReader(in) : new NdjsonReader(in);
+    }
+
+    private static int usage(PrintStream out) {
+        out.println("Usage: TrafficCheck [-threads n] [-baseUri uri] <raml file> <traffic file (.har or .ndjson)>...");
+        return 2;
+    }
+
+    private static class PrintingAggregator extends DummyReportAggragator {
+        private final PrintStream out;
+        private int failed;
+
+        public PrintingAggregator(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public RamlReport addReport(RamlReport report) {
+            if (!report.isEmpty()) {
+                failed++;
+                for (final RamlViolationMessage message : report.getRequestViolations()) {
+                    out.println("Request:  " + message);
+                }
+                for (final RamlViolationMessage message : report.getResponseViolations()) {
+                    out.println("Response: " + message);
+                }
+            }
+            return report;
+        }
+
+        @Override
+        public void clear() {
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+/**
+ * The parts of a check that can be switched off, see {@link CheckerConfig#checkingOnly(CheckPhase...)}.
+ * Finding the resource, the action and the response code is always checked.
+ */
+public enum CheckPhase {
+    /**
+     * Query, URI and base URI parameters.
+     */
+    PARAMETER,
+    /**
+     * Request and response headers.
+     */
+    HEADER,
+    /**
+     * Form parameters.
+     */
+    FORM,
+    /**
+     * Media types and schemas of the bodies.
+     */
+    BODY_SCHEMA,
+    /**
+     * Accept header against the response media type.
+     */
+    CONTENT_NEGOTIATION,
+    /**
+     * Security schemes. The parameters, headers and responses they describe are always used by the other phases.
+     */
+    SECURITY
+}
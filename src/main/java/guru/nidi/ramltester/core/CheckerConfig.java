@@ -17,7 +17,7 @@ package guru.nidi.ramltester.core;
 
 import org.raml.model.Raml;
 
-import java.util.List;
+import java.util.*;
 
 /**
  *
@@ -29,26 +29,74 @@ public class CheckerConfig {
     public final boolean includeServletPath;
     public final boolean ignoreXheaders;
     public final boolean failFast;
+    /**
+     * Bodies larger than this are not validated against their schema, see {@link #limitingBodySize(int)}.
+     */
+    public final int maxBodySize;
+    /**
+     * The maximum number of request and response violations each in a report, see {@link #limitingViolations(int)}.
+     */
+    public final int maxViolations;
+    /**
+     * The time budget of a check in milliseconds, 0 for no budget, see {@link #limitingCheckTime(long)}.
+     */
+    public final long maxCheckMillis;
+    /**
+     * The phases that are checked, see {@link #checkingOnly(CheckPhase...)}.
+     */
+    public final Set<CheckPhase> phases;
+    /**
+     * The cache of request results or null, see {@link #cachingRequests(int, String...)}.
+     */
+    public final RequestCache requestCache;
 
     public CheckerConfig(Raml raml, List<SchemaValidator> schemaValidators) {
         this(raml, schemaValidators, null, false, false, false);
     }
 
     public CheckerConfig(Raml raml, List<SchemaValidator> schemaValidators, String baseUri, boolean includeServletPath, boolean ignoreXheaders, boolean failFast) {
-        this.raml = raml;
-        this.schemaValidators = schemaValidators;
-        this.baseUri = baseUri;
-        this.includeServletPath = includeServletPath;
-        this.ignoreXheaders = ignoreXheaders;
-        this.failFast = failFast;
+        this(new Builder(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast));
+    }
+
+    private CheckerConfig(Builder builder) {
+        raml = builder.raml;
+        schemaValidators = builder.schemaValidators;
+        baseUri = builder.baseUri;
+        includeServletPath = builder.includeServletPath;
+        ignoreXheaders = builder.ignoreXheaders;
+        failFast = builder.failFast;
+        maxBodySize = builder.maxBodySize;
+        maxViolations = builder.maxViolations;
+        maxCheckMillis = builder.maxCheckMillis;
+        phases = Collections.unmodifiableSet(builder.phases.isEmpty() ? EnumSet.noneOf(CheckPhase.class) : EnumSet.copyOf(builder.phases));
+        requestCache = builder.requestCache;
+    }
+
+    /**
+     * The request cache is kept, its entries of the old raml are not used anymore.
+     *
+     * @param raml             the new raml
+     * @param schemaValidators the new schema validators
+     * @return the new config
+     */
+    public CheckerConfig withRaml(Raml raml, List<SchemaValidator> schemaValidators) {
+        final Builder copy = copy();
+        copy.raml = raml;
+        copy.schemaValidators = schemaValidators;
+        return new CheckerConfig(copy);
     }
 
     public CheckerConfig assumingBaseUri(String baseUri) {
-        return new CheckerConfig(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        final Builder copy = copy();
+        copy.baseUri = baseUri;
+        return new CheckerConfig(copy);
     }
 
     public CheckerConfig assumingBaseUri(String baseUri, boolean includeServletPath) {
-        return new CheckerConfig(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        final Builder copy = copy();
+        copy.baseUri = baseUri;
+        copy.includeServletPath = includeServletPath;
+        return new CheckerConfig(copy);
     }
 
     public CheckerConfig ignoringXheaders() {
@@ -56,7 +104,9 @@ public class CheckerConfig {
     }
 
     public CheckerConfig ignoringXheaders(boolean ignoreXheaders) {
-        return new CheckerConfig(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        final Builder copy = copy();
+        copy.ignoreXheaders = ignoreXheaders;
+        return new CheckerConfig(copy);
     }
 
     public CheckerConfig includeServletPath() {
@@ -64,7 +114,9 @@ public class CheckerConfig {
     }
 
     public CheckerConfig includeServletPath(boolean includeServletPath) {
-        return new CheckerConfig(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        final Builder copy = copy();
+        copy.includeServletPath = includeServletPath;
+        return new CheckerConfig(copy);
     }
 
     public CheckerConfig failFast() {
@@ -72,6 +124,116 @@ public class CheckerConfig {
     }
 
     public CheckerConfig failFast(boolean failFast) {
-        return new CheckerConfig(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        final Builder copy = copy();
+        copy.failFast = failFast;
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * Do not validate bodies larger than the given size against their schema, this is a notice of the report but not a violation.
+     * Validating a body needs several times its size on the heap, this bounds the memory needed by a check.
+     *
+     * @param maxBodySize the maximum size of a body in bytes
+     * @return the new config
+     */
+    public CheckerConfig limitingBodySize(int maxBodySize) {
+        final Builder copy = copy();
+        copy.maxBodySize = maxBodySize;
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * Keep at most the given number of request and response violations each in a report.
+     * Further violations are only counted, the last violation tells how many have been dropped.
+     *
+     * @param maxViolations the maximum number of violations
+     * @return the new config
+     */
+    public CheckerConfig limitingViolations(int maxViolations) {
+        final Builder copy = copy();
+        copy.maxViolations = maxViolations;
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * Stop a check that takes longer than the given time, report a <code>validation.timeout</code> violation and mark the report as truncated.
+     * The time is checked between the phases and while parameter patterns are evaluated.
+     * Patterns that have no java equivalent and schema validations cannot be interrupted,
+     * they run on a shared pool of threads and are abandoned when the time is up.
+     *
+     * @param maxCheckMillis the time budget of a check in milliseconds, 0 for no budget
+     * @return the new config
+     */
+    public CheckerConfig limitingCheckTime(long maxCheckMillis) {
+        final Builder copy = copy();
+        copy.maxCheckMillis = maxCheckMillis;
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * Check only the given phases, the skipped phases are not evaluated at all and are not recorded in the usage.
+     * Resources, actions and response codes are always checked.
+     *
+     * @param phases the phases to check
+     * @return the new config
+     */
+    public CheckerConfig checkingOnly(CheckPhase... phases) {
+        final Builder copy = copy();
+        copy.phases = new HashSet<>(Arrays.asList(phases));
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * Cache the result of checking requests without a body, so identical requests only need their response checked.
+     * The cache is shared by all checkers created from this config, derived configs get their own empty cache.
+     *
+     * @param maxEntries      the maximum number of cached requests
+     * @param volatileHeaders the headers whose values are ignored in the cache key, they must not influence the check
+     * @return the new config
+     */
+    public CheckerConfig cachingRequests(int maxEntries, String... volatileHeaders) {
+        final Builder copy = copy();
+        copy.requestCache = new RequestCache(maxEntries, Arrays.asList(volatileHeaders));
+        return new CheckerConfig(copy);
+    }
+
+    /**
+     * @return the options of this config, with an empty copy of the request cache
+     */
+    private Builder copy() {
+        final Builder copy = new Builder(raml, schemaValidators, baseUri, includeServletPath, ignoreXheaders, failFast);
+        copy.maxBodySize = maxBodySize;
+        copy.maxViolations = maxViolations;
+        copy.maxCheckMillis = maxCheckMillis;
+        copy.phases = phases;
+        copy.requestCache = requestCache == null ? null : requestCache.emptyCopy();
+        return copy;
+    }
+
+    public boolean isChecking(CheckPhase phase) {
+        return phases.contains(phase);
+    }
+
+    private static final class Builder {
+        Raml raml;
+        List<SchemaValidator> schemaValidators;
+        String baseUri;
+        boolean includeServletPath;
+        boolean ignoreXheaders;
+        boolean failFast;
+        int maxBodySize = Integer.MAX_VALUE;
+        int maxViolations = Integer.MAX_VALUE;
+        long maxCheckMillis;
+        Set<CheckPhase> phases = EnumSet.allOf(CheckPhase.class);
+        RequestCache requestCache;
+
+        public Builder(Raml raml, List<SchemaValidator> schemaValidators, String baseUri, boolean includeServletPath, boolean ignoreXheaders, boolean failFast) {
+            this.raml = raml;
+            this.schemaValidators = schemaValidators;
+            this.baseUri = baseUri;
+            this.includeServletPath = includeServletPath;
+            this.ignoreXheaders = ignoreXheaders;
+            this.failFast = failFast;
+        }
     }
 }
@@ -21,21 +21,25 @@ import java.util.*;
  *
  */
 class CountSet<T> extends AbstractSet<T> {
-    private final Map<T, Integer> map = new HashMap<>();
+    //created on the first add, most sets of a single exchange stay empty
+    private Map<T, Integer> map;
 
     public void add(T value, int count) {
         final int old = getCount(value);
+        if (map == null) {
+            map = new HashMap<>();
+        }
         map.put(value, old + count);
     }
 
     @Override
     public Iterator<T> iterator() {
-        return map.keySet().iterator();
+        return map == null ? Collections.<T>emptySet().iterator() : map.keySet().iterator();
     }
 
     @Override
     public int size() {
-        return map.size();
+        return map == null ? 0 : map.size();
     }
 
     public boolean add(T value) {
@@ -55,7 +59,7 @@ class CountSet<T> extends AbstractSet<T> {
     }
 
     public int getCount(T value) {
-        final Integer count = map.get(value);
+        final Integer count = map == null ? null : map.get(value);
         return count == null ? 0 : count;
     }
 
@@ -63,13 +67,13 @@ class CountSet<T> extends AbstractSet<T> {
         return new Iterable<Map.Entry<T, Integer>>() {
             @Override
             public Iterator<Map.Entry<T, Integer>> iterator() {
-                return map.entrySet().iterator();
+                return map == null ? Collections.<Map.Entry<T, Integer>>emptySet().iterator() : map.entrySet().iterator();
             }
         };
     }
 
     @Override
     public String toString() {
-        return map.toString();
+        return map == null ? "{}" : map.toString();
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+import guru.nidi.ramltester.util.DaemonThreadFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * The time budget of a check.
+ * Long running evaluations call {@link #check()} regularly and stop with a {@link ValidationTimeoutException} when it is exceeded.
+ * Evaluations that cannot check the deadline themselves are {@link #run(Evaluation) run} on another thread and abandoned when it is exceeded.
+ */
+final class Deadline {
+    static final Deadline NONE = new Deadline(0, 0);
+    private static final int CHECK_INTERVAL = 1024;
+    //abandoned evaluations keep their thread, so there are more threads than processors
+    private static final int EVALUATOR_THREADS = 16;
+    private static final ThreadPoolExecutor EVALUATORS = new ThreadPoolExecutor(EVALUATOR_THREADS, EVALUATOR_THREADS, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory("raml-check-evaluator"));
+
+    private final long millis;
+    private final long end;
+
+    static {
+        EVALUATORS.allowCoreThreadTimeOut(true);
+    }
+
+    interface Evaluation<T> {
+        T evaluate();
+    }
+
+    private Deadline(long millis, long end) {
+        this.millis = millis;
+        this.end = end;
+    }
+
+    /**
+     * @param millis the time budget, 0 for no budget
+     * @return a deadline that is exceeded after the given time
+     */
+    static Deadline after(long millis) {
+        return millis <= 0 ? NONE : new Deadline(millis, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    boolean isLimited() {
+        return millis > 0;
+    }
+
+    long getMillis() {
+        return millis;
+    }
+
+    void check() {
+        if (isLimited() && System.nanoTime() - end > 0) {
+            throw new ValidationTimeoutException(millis);
+        }
+    }
+
+    /**
+     * Run an evaluation that does not check this deadline.
+     * With a budget, the evaluation runs on a shared pool and is abandoned when the budget is exceeded.
+     * An abandoned evaluation keeps its thread until it finishes, the time waiting for a free thread counts against the budget.
+     *
+     * @param evaluation the evaluation
+     * @param <T>        the type of the result
+     * @return the result of the evaluation
+     * @throws ValidationTimeoutException if the budget is exceeded
+     */
+    <T> T run(final Evaluation<T> evaluation) {
+        if (!isLimited()) {
+            return evaluation.evaluate();
+        }
+        check();
+        final Future<T> future = EVALUATORS.submit(new Callable<T>() {
+            @Override
+            public T call() {
+                return evaluation.evaluate();
+            }
+        });
+        try {
+            return future.get(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ValidationTimeoutException(millis, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ValidationTimeoutException(millis, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    /**
+     * @param s the input of a regex
+     * @return a char sequence that checks this deadline while it is read
+     */
+    CharSequence watch(CharSequence s) {
+        return isLimited() ? new WatchedCharSequence(s) : s;
+    }
+
+    private class WatchedCharSequence implements CharSequence {
+        private final CharSequence delegate;
+        private int reads;
+
+        public WatchedCharSequence(CharSequence delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int length() {
+            return delegate.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads % CHECK_INTERVAL == 0) {
+                check();
+            }
+            return delegate.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new WatchedCharSequence(delegate.subSequence(start, end));
+        }
+
+        @Override
+        public String toString() {
+            return delegate.toString();
+        }
+    }
+}
@@ -20,7 +20,17 @@ import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
+/**
+ * Evaluates regexes with javascript semantics.
+ * A javascript evaluation cannot be interrupted, so with a {@link Deadline},
+ * regexes that {@link JsRegexTranslator} can translate into an equivalent java regex are evaluated with java
+ * on an input that checks the deadline. All other regexes are evaluated with javascript by {@link Deadline#run(Deadline.Evaluation)}.
+ */
 final class JsRegex {
     private static final String MATCHES_IN_JS
             = "var matches = function(input, re, flags){"
@@ -29,6 +39,8 @@ final class JsRegex {
             + "};";
 
     private static final ScriptEngine ENGINE;
+    private static final Pattern NO_JAVA_PATTERN = Pattern.compile("");
+    private static final ConcurrentMap<String, Pattern> JAVA_PATTERNS = new ConcurrentHashMap<>();
 
     public static class InvalidRegexException extends RuntimeException {
         public InvalidRegexException(String message, Throwable cause) {
@@ -49,6 +61,10 @@ final class JsRegex {
     }
 
     public static boolean matches(String input, String regex) {
+        return matchesWithin(input, regex, Deadline.NONE);
+    }
+
+    public static boolean matchesWithin(String input, String regex, Deadline deadline) {
         final String unquoted = (isDoubleQuoted(regex) || isSingleQuoted(regex))
                 ? regex.substring(1, regex.length() - 1)
                 : regex;
@@ -57,13 +73,35 @@ final class JsRegex {
             if (pos >= unquoted.length() - 3) {
                 final String flags = pos == unquoted.length() - 1 ? "" : unquoted.substring(pos + 1);
                 final String unslashed = unquoted.substring(1, pos).replace("\\/", "/");
-                return matches(input, unslashed, flags);
+                return matches(input, unslashed, flags, deadline);
             }
         }
-        return matches(input, unquoted, null);
+        return matches(input, unquoted, null, deadline);
     }
 
     public static boolean matches(String input, String regex, String flags) {
+        return matches(input, regex, flags, Deadline.NONE);
+    }
+
+    public static boolean matches(final String input, final String regex, final String flags, Deadline deadline) {
+        if (!deadline.isLimited()) {
+            return matchesInJs(input, regex, flags);
+        }
+        if (JsRegexTranslator.isSafeInput(input)) {
+            final Pattern pattern = javaPattern(regex, flags);
+            if (pattern != NO_JAVA_PATTERN) {
+                return pattern.matcher(deadline.watch(input)).find();
+            }
+        }
+        return deadline.run(new Deadline.Evaluation<Boolean>() {
+            @Override
+            public Boolean evaluate() {
+                return matchesInJs(input, regex, flags);
+            }
+        });
+    }
+
+    private static boolean matchesInJs(String input, String regex, String flags) {
         try {
             return (boolean) ((Invocable) ENGINE).invokeFunction("matches", input, regex, flags);
         } catch (Exception e) {
@@ -75,6 +113,29 @@ final class JsRegex {
         }
     }
 
+    private static Pattern javaPattern(String regex, String flags) {
+        final String key = flags + "/" + regex;
+        final Pattern pattern = JAVA_PATTERNS.get(key);
+        if (pattern != null) {
+            return pattern;
+        }
+        final Pattern compiled = compileJavaPattern(regex, flags);
+        final Pattern existing = JAVA_PATTERNS.putIfAbsent(key, compiled);
+        return existing == null ? compiled : existing;
+    }
+
+    private static Pattern compileJavaPattern(String regex, String flags) {
+        final String javaRegex = JsRegexTranslator.toJava(regex, flags);
+        if (javaRegex == null) {
+            return NO_JAVA_PATTERN;
+        }
+        try {
+            return Pattern.compile(javaRegex, JsRegexTranslator.isCaseInsensitive(flags) ? Pattern.CASE_INSENSITIVE : 0);
+        } catch (PatternSyntaxException e) {
+            return NO_JAVA_PATTERN;
+        }
+    }
+
     private static boolean isDoubleQuoted(String regex) {
         return regex.startsWith("\"") && regex.endsWith("\"");
     }
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+/**
+ * Translates a javascript regex into a java regex with exactly the same matches.
+ * Only a conservative subset of the javascript syntax is translated, for everything else the translation fails
+ * and the regex has to be evaluated by javascript.
+ * The translated regexes are only equivalent for inputs without surrogate characters, see {@link #isSafeInput(CharSequence)}.
+ */
+final class JsRegexTranslator {
+    private static final String JS_DOT = "[^\\n\\r\\u2028\\u2029]";
+
+    private final String regex;
+    private final boolean caseInsensitive;
+    private final StringBuilder java = new StringBuilder();
+    private int pos;
+    private int classStart = -1;
+
+    private JsRegexTranslator(String regex, boolean caseInsensitive) {
+        this.regex = regex;
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * @param regex the javascript regex
+     * @param flags the javascript flags or null
+     * @return the equivalent java regex or null if no equivalence can be guaranteed
+     */
+    static String toJava(String regex, String flags) {
+        boolean caseInsensitive = false;
+        if (flags != null) {
+            for (final char flag : flags.toCharArray()) {
+                if (flag == 'i') {
+                    caseInsensitive = true;
+                } else if (flag != 'g') {
+                    return null;
+                }
+            }
+        }
+        return new JsRegexTranslator(regex, caseInsensitive).translate();
+    }
+
+    /**
+     * @return if the flags of a translated regex need the java flag CASE_INSENSITIVE
+     */
+    static boolean isCaseInsensitive(String flags) {
+        return flags != null && flags.indexOf('i') >= 0;
+    }
+
+    /**
+     * Java matches surrogate pairs as one character, javascript as two.
+     *
+     * @param input the input of the regex
+     * @return if a translated regex matches the input like javascript does
+     */
+    static boolean isSafeInput(CharSequence input) {
+        for (int i = 0; i < input.length(); i++) {
+            if (isSurrogate(input.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSurrogate(char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    private String translate() {
+        while (pos < regex.length()) {
+            final char c = regex.charAt(pos);
+            //only printable ascii, so case insensitivity is the same in java and javascript
+            if (c < 0x20 || c > 0x7e || !(classStart >= 0 ? classChar(c) : normalChar(c))) {
+                return null;
+            }
+        }
+        return classStart >= 0 ? null : java.toString();
+    }
+
+    private boolean normalChar(char c) {
+        switch (c) {
+            case '\\':
+                return escape(false);
+            case '.':
+                java.append(JS_DOT);
+                pos++;
+                return true;
+            case '$':
+                //without multiline, $ only matches at the end of the input, java's $ also matches before a final line terminator
+                java.append("\\z");
+                pos++;
+                return true;
+            case '[':
+                return classStart();
+            case '(':
+                return group();
+            case '*':
+            case '+':
+            case '?':
+                java.append(c);
+                pos++;
+                return quantifierSuffix();
+            case '{':
+                return braceQuantifier();
+            case '}':
+            case ']':
+                java.append('\\').append(c);
+                pos++;
+                return true;
+            default:
+                java.append(c);
+                pos++;
+                return true;
+        }
+    }
+
+    private boolean classChar(char c) {
+        switch (c) {
+            case '\\':
+                return escape(true);
+            case '[':
+                //a nested class in java
+                return false;
+            case '&':
+                //&& is an intersection in java
+                java.append("\\&");
+                pos++;
+                return true;
+            case ']':
+                java.append(c);
+                pos++;
+                classStart = -1;
+                return true;
+            default:
+                java.append(c);
+                pos++;
+                return true;
+        }
+    }
+
+    private boolean classStart() {
+        java.append('[');
+        pos++;
+        if (pos < regex.length() && regex.charAt(pos) == '^') {
+            java.append('^');
+            pos++;
+        }
+        classStart = pos;
+        //an empty class never matches in javascript, java reads the bracket as a literal
+        return pos < regex.length() && regex.charAt(pos) != ']';
+    }
+
+    private boolean group() {
+        java.append('(');
+        pos++;
+        if (pos < regex.length() && regex.charAt(pos) == '?') {
+            if (pos + 1 >= regex.length() || ":=!".indexOf(regex.charAt(pos + 1)) < 0) {
+                return false;
+            }
+            java.append('?').append(regex.charAt(pos + 1));
+            pos += 2;
+        }
+        return true;
+    }
+
+    private boolean braceQuantifier() {
+        final int end = regex.indexOf('}', pos);
+        if (end < 0 || !regex.substring(pos + 1, end).matches("\\d+(,\\d*)?")) {
+            //a literal brace in javascript, an error in java
+            return false;
+        }
+        java.append(regex, pos, end + 1);
+        pos = end + 1;
+        return quantifierSuffix();
+    }
+
+    private boolean quantifierSuffix() {
+        if (pos < regex.length()) {
+            final char c = regex.charAt(pos);
+            if (c == '?') {
+                java.append(c);
+                pos++;
+            } else if (c == '+') {
+                //a possessive quantifier in java, an error in javascript
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean escape(boolean inClass) {
+        if (pos + 1 >= regex.length()) {
+            return false;
+        }
+        final char c = regex.charAt(pos + 1);
+        return c >= 0x20 && c <= 0x7e && printableEscape(c, inClass);
+    }
+
+    private boolean printableEscape(char c, boolean inClass) {
+        if ("dDwW".indexOf(c) >= 0) {
+            //in a class, ranges with class escapes are handled differently
+            return !(inClass && isRangeBound()) && append(2);
+        }
+        if ("tnrf".indexOf(c) >= 0) {
+            return append(2);
+        }
+        if (c == 'u') {
+            return hexEscape(4);
+        }
+        if (c == 'x') {
+            return hexEscape(2);
+        }
+        //escaped punctuation is the literal character in both, letters and digits have different meanings
+        return !Character.isLetterOrDigit(c) && append(2);
+    }
+
+    /**
+     * @return if the escape at pos is the start or the end of a range in a class
+     */
+    private boolean isRangeBound() {
+        return regex.charAt(pos - 1) == '-' && pos - 1 > classStart
+                || pos + 2 < regex.length() && regex.charAt(pos + 2) == '-';
+    }
+
+    private boolean hexEscape(int digits) {
+        if (pos + 2 + digits > regex.length()) {
+            return false;
+        }
+        final String hex = regex.substring(pos + 2, pos + 2 + digits);
+        if (!hex.matches("[0-9a-fA-F]+")) {
+            return false;
+        }
+        final char value = (char) Integer.parseInt(hex, 16);
+        if (isSurrogate(value) || (caseInsensitive && value > 0x7f)) {
+            return false;
+        }
+        return append(2 + digits);
+    }
+
+    private boolean append(int len) {
+        java.append(regex, pos, pos + len);
+        pos += len;
+        return true;
+    }
+}
@@ -27,17 +27,23 @@ import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 /**
  *
  */
 class ParameterChecker {
-    private static final Pattern INTEGER = Pattern.compile("0|-?[1-9][0-9]*");
-    private static final Pattern NUMBER = Pattern.compile("0|inf|-inf|nan|-?(((0?|[1-9][0-9]*)\\.[0-9]*[1-9])|([1-9][0-9]*))(e[-+]?[1-9][0-9]*)?");
     private static final String DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss 'GMT'";
     private static final String WILDCARD = "{?}";
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final ThreadLocal<SimpleDateFormat> DATE_FORMATS = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT, Locale.ENGLISH);
+            dateFormat.setLenient(false);
+            return dateFormat;
+        }
+    };
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -47,38 +53,44 @@ class ParameterChecker {
     private final boolean ignoreX;
     private final boolean caseSensitive;
     private final Set<String> predefined;
+    private final Deadline deadline;
 
-    ParameterChecker(RamlViolations violations, boolean acceptUndefined, boolean acceptWildcard, boolean ignoreX, boolean caseSensitive, Set<String> predefined) {
+    ParameterChecker(RamlViolations violations, boolean acceptUndefined, boolean acceptWildcard, boolean ignoreX, boolean caseSensitive, Set<String> predefined, Deadline deadline) {
         this.violations = violations;
         this.acceptUndefined = acceptUndefined;
         this.acceptWildcard = acceptWildcard;
         this.ignoreX = ignoreX;
         this.caseSensitive = caseSensitive;
         this.predefined = predefined;
+        this.deadline = deadline;
     }
 
     ParameterChecker(RamlViolations violations) {
-        this(violations, false, false, false, true, Collections.<String>emptySet());
+        this(violations, false, false, false, true, Collections.<String>emptySet(), Deadline.NONE);
     }
 
     ParameterChecker acceptUndefined() {
-        return new ParameterChecker(violations, true, acceptWildcard, ignoreX, caseSensitive, predefined);
+        return new ParameterChecker(violations, true, acceptWildcard, ignoreX, caseSensitive, predefined, deadline);
     }
 
     ParameterChecker acceptWildcard() {
-        return new ParameterChecker(violations, acceptUndefined, true, ignoreX, caseSensitive, predefined);
+        return new ParameterChecker(violations, acceptUndefined, true, ignoreX, caseSensitive, predefined, deadline);
     }
 
     ParameterChecker ignoreX(boolean ignoreX) {
-        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined);
+        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined, deadline);
     }
 
     ParameterChecker caseSensitive(boolean caseSensitive) {
-        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined);
+        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined, deadline);
     }
 
     ParameterChecker predefined(Set<String> predefined) {
-        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined);
+        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined, deadline);
+    }
+
+    ParameterChecker deadline(Deadline deadline) {
+        return new ParameterChecker(violations, acceptUndefined, acceptWildcard, ignoreX, caseSensitive, predefined, deadline);
     }
 
     public Set<String> checkParameters(Map<String, ? extends AbstractParam> params, Values values, Message message) {
@@ -94,7 +106,7 @@ class ParameterChecker {
     }
 
     private boolean acceptUndefined(String name) {
-        return acceptUndefined || predefined.contains(name) || (ignoreX && name.startsWith("x-"));
+        return acceptUndefined || predefined.contains(name) || (ignoreX && name.regionMatches(true, 0, "x-", 0, 2));
     }
 
     public Set<String> checkListParameters(Map<String, List<? extends AbstractParam>> params, Values values, Message message) {
@@ -104,7 +116,7 @@ class ParameterChecker {
             final String paramName = findMatchingParamName(params.keySet(), entry.getKey());
             final List<? extends AbstractParam> parameters = params.get(paramName);
             if (parameters == null || parameters.isEmpty()) {
-                violations.addIf(!acceptUndefined(entry.getKey().toLowerCase(Locale.ENGLISH)), namedMsg.withMessageParam("undefined"));
+                violations.addIf(!acceptUndefined(entry.getKey()), namedMsg.withMessageParam("undefined"));
             } else {
                 for (final AbstractParam parameter : parameters) {
                     violations.addIf(!parameter.isRepeat() && entry.getValue().size() > 1, namedMsg.withMessageParam("repeat.superfluous"));
@@ -125,29 +137,28 @@ class ParameterChecker {
     }
 
     private String findMatchingParamName(Collection<String> paramNames, String name) {
-        final String normalName = normalizeName(name);
         for (final String param : paramNames) {
-            final String normalParam = normalizeName(param);
-            final int pos = normalParam.indexOf(WILDCARD);
-            if (normalParam.equals(normalName) || (acceptWildcard && pos >= 0 &&
-                    nameMatchesKeyStart(normalName, normalParam, pos) && nameMatchesKeyEnd(normalName, normalParam, pos))) {
+            if (caseSensitive ? param.equals(name) : param.equalsIgnoreCase(name)) {
                 return param;
             }
+            if (acceptWildcard) {
+                final int pos = param.indexOf(WILDCARD);
+                if (pos >= 0 && nameMatchesKeyStart(name, param, pos) && nameMatchesKeyEnd(name, param, pos)) {
+                    return param;
+                }
+            }
         }
         return null;
     }
 
-    private String normalizeName(String name) {
-        return caseSensitive ? name : name.toLowerCase(Locale.ENGLISH);
-    }
-
     private boolean nameMatchesKeyStart(String name, String key, int wildcardPos) {
-        return wildcardPos == 0 || name.startsWith(key.substring(0, wildcardPos));
+        return name.regionMatches(!caseSensitive, 0, key, 0, wildcardPos);
     }
 
     private boolean nameMatchesKeyEnd(String name, String key, int wildcardPos) {
-        return wildcardPos == key.length() - WILDCARD.length() ||
-                name.endsWith(key.substring(wildcardPos + WILDCARD.length()));
+        final int suffixPos = wildcardPos + WILDCARD.length();
+        final int suffixLen = key.length() - suffixPos;
+        return name.regionMatches(!caseSensitive, name.length() - suffixLen, key, suffixPos, suffixLen);
     }
 
     public void checkParameter(AbstractParam param, Object value, Message message) {
@@ -209,7 +220,7 @@ class ParameterChecker {
         violations.addIf(param.getEnumeration() != null && !param.getEnumeration().contains(value),
                 detail.withMessageParam("enum.invalid", param.getEnumeration()));
         try {
-            violations.addIf(param.getPattern() != null && !JsRegex.matches(value, param.getPattern()),
+            violations.addIf(param.getPattern() != null && !JsRegex.matchesWithin(value, param.getPattern(), deadline),
                     detail.withMessageParam("pattern.invalid", param.getPattern()));
         } catch (PatternSyntaxException e) {
             log.warn("Could not execute regex '" + param.getPattern(), e);
@@ -221,11 +232,13 @@ class ParameterChecker {
     }
 
     private void checkNumber(AbstractParam param, String value, Message detail) {
-        if (NUMBER.matcher(value).matches()) {
-            if ("inf".equals(value) || "-inf".equals(value) || "nan".equals(value)) {
-                violations.addIf(param.getMinimum() != null || param.getMaximum() != null, detail.withMessageParam("unbound"));
-            } else {
-                checkNumericLimits(param, new BigDecimal(value), detail);
+        if (isNumber(value)) {
+            if (hasNumericLimits(param)) {
+                if ("inf".equals(value) || "-inf".equals(value) || "nan".equals(value)) {
+                    violations.add(detail.withMessageParam("unbound"));
+                } else {
+                    checkNumericLimits(param, new BigDecimal(value), detail);
+                }
             }
         } else {
             violations.add(detail.withMessageParam("number.invalid"));
@@ -233,22 +246,99 @@ class ParameterChecker {
     }
 
     private void checkInteger(AbstractParam param, String value, Message detail) {
-        if (INTEGER.matcher(value).matches()) {
-            checkNumericLimits(param, new BigDecimal(value), detail);
+        if (isInteger(value)) {
+            if (hasNumericLimits(param)) {
+                final int digits = value.charAt(0) == '-' ? value.length() - 1 : value.length();
+                if (digits <= MAX_LONG_DIGITS) {
+                    checkIntegerLimits(param, Long.parseLong(value), detail);
+                } else {
+                    checkNumericLimits(param, new BigDecimal(value), detail);
+                }
+            }
         } else {
             violations.add(detail.withMessageParam("integer.invalid"));
         }
     }
 
+    private boolean hasNumericLimits(AbstractParam param) {
+        return param.getMinimum() != null || param.getMaximum() != null;
+    }
+
+    /**
+     * Same as the regex <code>0|-?[1-9][0-9]*</code>.
+     */
+    static boolean isInteger(String value) {
+        if ("0".equals(value)) {
+            return true;
+        }
+        final int start = value.startsWith("-") ? 1 : 0;
+        return start < value.length() && isNonZeroDigit(value.charAt(start)) && digitsEnd(value, start + 1) == value.length();
+    }
+
+    /**
+     * Same as the regex <code>0|inf|-inf|nan|-?(((0?|[1-9][0-9]*)\.[0-9]*[1-9])|([1-9][0-9]*))(e[-+]?[1-9][0-9]*)?</code>.
+     */
+    static boolean isNumber(String value) {
+        if ("0".equals(value) || "inf".equals(value) || "-inf".equals(value) || "nan".equals(value)) {
+            return true;
+        }
+        final int len = value.length();
+        int pos = value.startsWith("-") ? 1 : 0;
+        final boolean leadingZero = pos < len && value.charAt(pos) == '0';
+        final boolean integerPart = pos < len && isNonZeroDigit(value.charAt(pos));
+        if (leadingZero) {
+            pos++;
+        } else if (integerPart) {
+            pos = digitsEnd(value, pos + 1);
+        }
+        if (pos < len && value.charAt(pos) == '.') {
+            final int fractionStart = pos + 1;
+            pos = digitsEnd(value, fractionStart);
+            if (pos == fractionStart || value.charAt(pos - 1) == '0') {
+                return false;
+            }
+        } else if (!integerPart) {
+            return false;
+        }
+        return exponentEnd(value, pos) == len;
+    }
+
+    /**
+     * Matches <code>(e[-+]?[1-9][0-9]*)?</code> starting at pos.
+     *
+     * @return the end of the exponent or -1 if it's invalid
+     */
+    private static int exponentEnd(String value, int pos) {
+        final int len = value.length();
+        if (pos == len || value.charAt(pos) != 'e') {
+            return pos;
+        }
+        int p = pos + 1;
+        if (p < len && (value.charAt(p) == '+' || value.charAt(p) == '-')) {
+            p++;
+        }
+        return p < len && isNonZeroDigit(value.charAt(p)) ? digitsEnd(value, p + 1) : -1;
+    }
+
+    private static boolean isNonZeroDigit(char c) {
+        return c >= '1' && c <= '9';
+    }
+
+    private static int digitsEnd(String value, int start) {
+        int pos = start;
+        while (pos < value.length() && value.charAt(pos) >= '0' && value.charAt(pos) <= '9') {
+            pos++;
+        }
+        return pos;
+    }
+
     private void checkFile(Message detail) {
         violations.add(detail.withMessageParam("file.invalid"));
     }
 
     private void checkDate(String value, Message detail) {
         try {
-            final SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT, Locale.ENGLISH);
-            dateFormat.setLenient(false);
-            dateFormat.parse(value);
+            DATE_FORMATS.get().parse(value);
         } catch (ParseException e) {
             violations.add(detail.withMessageParam("date.invalid"));
         }
@@ -258,6 +348,24 @@ class ParameterChecker {
         violations.addIf(!"true".equals(value) && !"false".equals(value), detail.withMessageParam("boolean.invalid"));
     }
 
+    private void checkIntegerLimits(AbstractParam param, long value, Message message) {
+        violations.addIf(param.getMinimum() != null && compare(param.getMinimum(), value) > 0,
+                message.withMessageParam("value.tooSmall", param.getMinimum()));
+        violations.addIf(param.getMaximum() != null && compare(param.getMaximum(), value) < 0,
+                message.withMessageParam("value.tooBig", param.getMaximum()));
+    }
+
+    /**
+     * Compares the long values if the bound is an integer that fits into a long, only other bounds need a BigDecimal.
+     */
+    private static int compare(BigDecimal bound, long value) {
+        if (bound.scale() == 0 && bound.precision() <= MAX_LONG_DIGITS) {
+            final long b = bound.longValue();
+            return b < value ? -1 : (b == value ? 0 : 1);
+        }
+        return bound.compareTo(BigDecimal.valueOf(value));
+    }
+
     private void checkNumericLimits(AbstractParam param, BigDecimal value, Message message) {
         violations.addIf(param.getMinimum() != null && param.getMinimum().compareTo(value) > 0,
                 message.withMessageParam("value.tooSmall", param.getMinimum()));
@@ -35,15 +35,25 @@ import static guru.nidi.ramltester.core.UsageBuilder.*;
  */
 public class RamlChecker {
     private final CheckerConfig config;
+    private RamlReport report;
     private RamlViolations requestViolations;
     private RamlViolationsPerSecurity violationsPerSecurity;
     private Locator locator;
     private Usage usage;
+    private boolean stopped;
+    private boolean checkingResponse;
+    private Deadline deadline = Deadline.NONE;
 
     private static final class DefaultHeaders {
         private static final Set<String>
-                REQUEST = new HashSet<>(Arrays.asList("accept", "accept-charset", "accept-encoding", "accept-language", "accept-datetime", "authorization", "cache-control", "connection", "cookie", "content-length", "content-md5", "content-type", "date", "dnt", "expect", "from", "host", "if-match", "if-modified-since", "if-none-match", "if-range", "if-unmodified-since", "max-forwards", "origin", "pragma", "proxy-authorization", "range", "referer", "te", "user-agent", "upgrade", "via", "warning")),
-                RESPONSE = new HashSet<>(Arrays.asList("access-control-allow-origin", "accept-ranges", "age", "allow", "cache-control", "connection", "content-encoding", "content-language", "content-length", "content-location", "content-md5", "content-disposition", "content-range", "content-type", "date", "etag", "expires", "last-modified", "link", "location", "p3p", "pragma", "proxy-authenticate", "refresh", "retry-after", "server", "set-cookie", "status", "strict-transport-security", "trailer", "transfer-encoding", "upgrade", "vary", "via", "warning", "www-authenticate", "x-frame-options"));
+                REQUEST = caseInsensitiveSet(Arrays.asList("accept", "accept-charset", "accept-encoding", "accept-language", "accept-datetime", "authorization", "cache-control", "connection", "cookie", "content-length", "content-md5", "content-type", "date", "dnt", "expect", "from", "host", "if-match", "if-modified-since", "if-none-match", "if-range", "if-unmodified-since", "max-forwards", "origin", "pragma", "proxy-authorization", "range", "referer", "te", "user-agent", "upgrade", "via", "warning")),
+                RESPONSE = caseInsensitiveSet(Arrays.asList("access-control-allow-origin", "accept-ranges", "age", "allow", "cache-control", "connection", "content-encoding", "content-language", "content-length", "content-location", "content-md5", "content-disposition", "content-range", "content-type", "date", "etag", "expires", "last-modified", "link", "location", "p3p", "pragma", "proxy-authenticate", "refresh", "retry-after", "server", "set-cookie", "status", "strict-transport-security", "trailer", "transfer-encoding", "upgrade", "vary", "via", "warning", "www-authenticate", "x-frame-options"));
+
+        private static Set<String> caseInsensitiveSet(List<String> values) {
+            final Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            set.addAll(values);
+            return set;
+        }
     }
 
     public RamlChecker(CheckerConfig config) {
@@ -55,23 +65,28 @@ public class RamlChecker {
     }
 
     public RamlReport check(RamlRequest request, RamlResponse response) {
-        final RamlReport report = new RamlReport(config.raml);
+        report = new RamlReport(config.raml, config.maxViolations);
         usage = report.getUsage();
         requestViolations = report.getRequestViolations();
         final RamlViolations responseViolations = report.getResponseViolations();
         locator = new Locator();
+        violationsPerSecurity = null;
+        stopped = false;
+        checkingResponse = false;
+        deadline = Deadline.after(config.maxCheckMillis);
         try {
-            final Action action = findAction(request);
-            final SecurityExtractor security = new SecurityExtractor(config.raml, action, requestViolations);
-            security.check(requestViolations);
-            violationsPerSecurity = new RamlViolationsPerSecurity(security);
-            checkRequest(request, action, security);
-            if (response != null) {
-                checkResponse(request, response, action, security);
-            }
-            violationsPerSecurity.addLeastViolations(requestViolations, responseViolations);
+            checkExchange(request, response);
         } catch (RamlViolationException e) {
             //ignore, results are in report
+        } catch (ValidationTimeoutException e) {
+            (checkingResponse ? responseViolations : requestViolations).add("validation.timeout", locator, config.maxCheckMillis);
+            stopped = true;
+        }
+        if (violationsPerSecurity != null) {
+            violationsPerSecurity.addLeastViolations(requestViolations, responseViolations);
+        }
+        if (stopped) {
+            report.truncate();
         }
 
         if (config.failFast && !report.isEmpty()) {
@@ -81,6 +96,59 @@ public class RamlChecker {
         return report;
     }
 
+    private void checkExchange(RamlRequest request, RamlResponse response) {
+        final RequestCache cache = config.requestCache;
+        final RequestCache.Key key = cache == null ? null : cache.key(request, config.baseUri, config.includeServletPath);
+        final RequestCache.Entry cached = key == null ? null : cache.get(key, config.raml);
+        final Action action;
+        final SecurityExtractor security;
+        if (cached == null) {
+            action = findAction(request);
+            security = securityExtractor(action);
+            violationsPerSecurity = new RamlViolationsPerSecurity(security, config.maxViolations);
+            checkRequest(request, action, security);
+            if (key != null) {
+                cache.put(key, new RequestCache.Entry(config.raml, action, security, usage, requestViolations, violationsPerSecurity, config.maxViolations));
+            }
+        } else {
+            action = cached.action;
+            security = cached.security;
+            locator.action(action);
+            violationsPerSecurity = cached.restore(usage, requestViolations, config.maxViolations);
+        }
+        if (response != null) {
+            phaseDone();
+            checkResponse(request, response, action, security);
+        }
+    }
+
+    /**
+     * Stop checking if the time budget is exceeded or, with fail fast, as soon as there is a violation.
+     * The violations of a security scheme only count if all schemes have violations.
+     */
+    private void phaseDone() {
+        deadline.check();
+        if (config.failFast && (!requestViolations.isEmpty() || (violationsPerSecurity != null && violationsPerSecurity.allHaveViolations()))) {
+            stopped = true;
+            throw new RamlViolationException();
+        }
+    }
+
+    private SecurityExtractor securityExtractor(Action action) {
+        if (!config.isChecking(CheckPhase.SECURITY)) {
+            //the schemes still define parameters, headers and responses, only the schemes themselves are not checked
+            return new SecurityExtractor(config.raml, action, new RamlViolations());
+        }
+        final SecurityExtractor security = new SecurityExtractor(config.raml, action, requestViolations);
+        security.check(requestViolations);
+        phaseDone();
+        return security;
+    }
+
+    private ParameterChecker parameterChecker(RamlViolations violations) {
+        return new ParameterChecker(violations).deadline(deadline);
+    }
+
     public Action findAction(RamlRequest request) {
         final UriComponents requestUri = UriComponents.fromHttpUrl(request.getRequestUrl(config.baseUri, config.includeServletPath));
         if (config.raml.getBaseUri() == null) {
@@ -96,7 +164,9 @@ public class RamlChecker {
 
         final Action action = findAction(pathMatch.getSuffix(), request.getMethod());
         checkProtocol(action, requestUri, ramlUri);
-        checkBaseUriParameters(hostMatch, pathMatch, action);
+        if (config.isChecking(CheckPhase.PARAMETER)) {
+            checkBaseUriParameters(hostMatch, pathMatch, action);
+        }
 
         return action;
     }
@@ -127,20 +197,33 @@ public class RamlChecker {
         }
         final Resource resource = matches.get(0).resource;
         locator.resource(resource);
-        checkUriParams(values, resource);
+        if (config.isChecking(CheckPhase.PARAMETER)) {
+            checkUriParams(values, resource);
+        }
         return resource;
     }
 
     public void checkRequest(RamlRequest request, Action action, SecurityExtractor security) {
-        checkQueryParameters(request.getQueryValues(), action, security);
-        checkRequestHeaderParameters(request.getHeaderValues(), action, security);
+        if (config.isChecking(CheckPhase.PARAMETER)) {
+            checkQueryParameters(request.getQueryValues(), action, security);
+            phaseDone();
+        }
+        if (config.isChecking(CheckPhase.HEADER)) {
+            checkRequestHeaderParameters(request.getHeaderValues(), action, security);
+            phaseDone();
+        }
+        if (!config.isChecking(CheckPhase.FORM) && !config.isChecking(CheckPhase.BODY_SCHEMA)) {
+            return;
+        }
 
         final MediaTypeMatch typeMatch = MediaTypeMatch.find(requestViolations, request, action.getBody(), locator);
         if (typeMatch != null) {
             locator.requestMime(typeMatch.getMatchingMime());
             if (FormDecoder.supportsFormParameters(typeMatch.getTargetType())) {
-                checkFormParameters(action, request.getFormValues(), typeMatch.getMatchingMime());
-            } else {
+                if (config.isChecking(CheckPhase.FORM)) {
+                    checkFormParameters(action, request.getFormValues(), typeMatch.getMatchingMime());
+                }
+            } else if (config.isChecking(CheckPhase.BODY_SCHEMA)) {
                 checkSchema(requestViolations, request.getContent(), typeMatch);
             }
         }
@@ -161,7 +244,7 @@ public class RamlChecker {
 
     private void checkFormParametersValues(Action action, MimeType mimeType, Values values, Map<String, List<? extends AbstractParam>> formParameters) {
         mimeTypeUsage(usage, action, mimeType).addFormParameters(
-                new ParameterChecker(requestViolations)
+                parameterChecker(requestViolations)
                         .checkListParameters(formParameters, values, new Message("formParam", locator))
         );
     }
@@ -170,7 +253,7 @@ public class RamlChecker {
         //TODO usage is multiplied by security schemes
         for (final SecurityScheme scheme : security.getSchemes()) {
             actionUsage(usage, action).addQueryParameters(
-                    new ParameterChecker(violationsPerSecurity.requestViolations(scheme))
+                    parameterChecker(violationsPerSecurity.requestViolations(scheme))
                             .checkParameters(mergeMaps(action.getQueryParameters(), security.queryParameters(scheme)), values, new Message("queryParam", locator))
             );
         }
@@ -180,7 +263,7 @@ public class RamlChecker {
         //TODO usage is multiplied by security schemes
         for (final SecurityScheme scheme : security.getSchemes()) {
             actionUsage(usage, action).addRequestHeaders(
-                    new ParameterChecker(violationsPerSecurity.requestViolations(scheme))
+                    parameterChecker(violationsPerSecurity.requestViolations(scheme))
                             .acceptWildcard()
                             .ignoreX(config.ignoreXheaders)
                             .caseSensitive(false)
@@ -191,7 +274,7 @@ public class RamlChecker {
     }
 
     private void checkBaseUriParameters(VariableMatcher hostMatch, VariableMatcher pathMatch, Action action) {
-        final ParameterChecker paramChecker = new ParameterChecker(requestViolations).acceptUndefined();
+        final ParameterChecker paramChecker = parameterChecker(requestViolations).acceptUndefined();
         final Map<String, List<? extends AbstractParam>> baseUriParams = getEffectiveBaseUriParams(config.raml.getBaseUriParameters(), action);
         paramChecker.checkListParameters(baseUriParams, hostMatch.getVariables(), new Message("baseUriParam", locator));
         paramChecker.checkListParameters(baseUriParams, pathMatch.getVariables(), new Message("baseUriParam", locator));
@@ -232,7 +315,7 @@ public class RamlChecker {
     }
 
     private void checkUriParams(Values values, Resource resource) {
-        final ParameterChecker paramChecker = new ParameterChecker(requestViolations).acceptUndefined();
+        final ParameterChecker paramChecker = parameterChecker(requestViolations).acceptUndefined();
         for (final Map.Entry<String, List<Object>> entry : values) {
             final AbstractParam uriParam = findUriParam(entry.getKey(), resource);
             final Message message = new Message("uriParam", locator, entry.getKey());
@@ -243,12 +326,14 @@ public class RamlChecker {
     }
 
     public void checkResponse(RamlRequest request, RamlResponse response, Action action, SecurityExtractor security) {
+        checkingResponse = true;
         //TODO usage is multiplied by security schemes
         for (final SecurityScheme scheme : security.getSchemes()) {
             final RamlViolations requestViolations = violationsPerSecurity.requestViolations(scheme);
             final RamlViolations responseViolations = violationsPerSecurity.responseViolations(scheme);
             final MediaTypeMatch typeMatch = doCheckReponse(responseViolations, response, action, security.responses(scheme));
-            if (typeMatch != null) {
+            phaseDone();
+            if (typeMatch != null && config.isChecking(CheckPhase.CONTENT_NEGOTIATION)) {
                 new ContentNegotiationChecker(requestViolations, responseViolations)
                         .check(request, response, action, typeMatch);
             }
@@ -265,12 +350,20 @@ public class RamlChecker {
         final String statusStr = Integer.toString(response.getStatus());
         actionUsage(usage, action).addResponseCode(statusStr);
         locator.responseCode(statusStr);
-        checkResponseHeaderParameters(violations, response.getHeaderValues(), action, statusStr, res);
+        if (config.isChecking(CheckPhase.HEADER)) {
+            checkResponseHeaderParameters(violations, response.getHeaderValues(), action, statusStr, res);
+            phaseDone();
+        }
+        if (!config.isChecking(CheckPhase.BODY_SCHEMA) && !config.isChecking(CheckPhase.CONTENT_NEGOTIATION)) {
+            return null;
+        }
 
         final MediaTypeMatch typeMatch = MediaTypeMatch.find(violations, response, res.getBody(), locator);
         if (typeMatch != null) {
             locator.responseMime(typeMatch.getMatchingMime());
-            checkSchema(violations, response.getContent(), typeMatch);
+            if (config.isChecking(CheckPhase.BODY_SCHEMA)) {
+                checkSchema(violations, response.getContent(), typeMatch);
+            }
         }
         return typeMatch;
     }
@@ -289,19 +382,42 @@ public class RamlChecker {
             violations.add("body.empty", locator, typeMatch.getTargetType());
             return;
         }
+        if (body.length > config.maxBodySize) {
+            report.addNotice(new Message("body.tooLarge", locator, body.length, config.maxBodySize).toString());
+            return;
+        }
 
         final String charset = typeMatch.getTargetCharset();
         try {
             final String content = new String(body, charset);
-            validator.validate(new NamedReader(content, new Message("body").toString()), resolveSchema(config.raml, schema), violations, new Message("schema.body.mismatch", locator, content));
+            final Message message = new Message("schema.body.mismatch", locator, content);
+            if (deadline.isLimited()) {
+                violations.addAll(validateWithin(validator, content, schema, message));
+            } else {
+                validator.validate(new NamedReader(content, new Message("body").toString()), resolveSchema(config.raml, schema), violations, message);
+            }
         } catch (UnsupportedEncodingException e) {
             violations.add("charset.invalid", charset);
         }
     }
 
+    /**
+     * The schema validation cannot check the deadline, so it runs on another thread with its own violations.
+     */
+    private RamlViolations validateWithin(final SchemaValidator validator, final String content, final String schema, final Message message) {
+        return deadline.run(new Deadline.Evaluation<RamlViolations>() {
+            @Override
+            public RamlViolations evaluate() {
+                final RamlViolations violations = new RamlViolations();
+                validator.validate(new NamedReader(content, new Message("body").toString()), resolveSchema(config.raml, schema), violations, message);
+                return violations;
+            }
+        });
+    }
+
     private void checkResponseHeaderParameters(RamlViolations violations, Values values, Action action, String responseCode, Response response) {
         responseUsage(usage, action, responseCode).addResponseHeaders(
-                new ParameterChecker(violations)
+                parameterChecker(violations)
                         .acceptWildcard()
                         .ignoreX(config.ignoreXheaders)
                         .caseSensitive(false)
@@ -19,6 +19,9 @@ import org.raml.model.Raml;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  *
@@ -26,12 +29,26 @@ import java.io.StringWriter;
 public class RamlReport {
     private final Raml raml;
     private final Usage usage = new Usage();
-    private final RamlViolations requestViolations = new RamlViolations();
-    private final RamlViolations responseViolations = new RamlViolations();
-    private final RamlViolations validationViolations = new RamlViolations();
+    private final RamlViolations requestViolations;
+    private final RamlViolations responseViolations;
+    private final RamlViolations validationViolations;
+    //created on the first notice, most exchanges have none
+    private List<String> notices;
+    private boolean truncated;
 
     public RamlReport(Raml raml) {
+        this(raml, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param raml          the raml
+     * @param maxViolations the maximum number of request, response and validation violations each, see {@link RamlViolations#RamlViolations(int)}
+     */
+    public RamlReport(Raml raml, int maxViolations) {
         this.raml = raml;
+        requestViolations = new RamlViolations(maxViolations);
+        responseViolations = new RamlViolations(maxViolations);
+        validationViolations = new RamlViolations(maxViolations);
     }
 
     public boolean isEmpty() {
@@ -44,9 +61,38 @@ public class RamlReport {
                 "requestViolations=" + requestViolations +
                 ", responseViolations=" + responseViolations +
                 ", validationViolations=" + validationViolations +
+                (notices == null ? "" : ", notices=" + notices) +
+                (truncated ? ", truncated" : "") +
                 '}';
     }
 
+    /**
+     * @return if not all parts of the exchange have been checked,
+     * because the check was stopped at the first violation with fail fast or because its time budget was exceeded
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    void truncate() {
+        truncated = true;
+    }
+
+    /**
+     * @return the parts of the exchange that were deliberately not checked, like bodies larger than the limit.
+     * They are not violations and do not make the report non empty.
+     */
+    public List<String> getNotices() {
+        return notices == null ? Collections.<String>emptyList() : Collections.unmodifiableList(notices);
+    }
+
+    void addNotice(String notice) {
+        if (notices == null) {
+            notices = new ArrayList<>();
+        }
+        notices.add(notice);
+    }
+
     Usage getUsage() {
         return usage;
     }
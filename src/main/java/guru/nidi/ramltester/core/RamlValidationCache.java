@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Keeps the violations of the last validation of each part of a raml
+ * together with a fingerprint of everything the validation of the part depends on.
+ * {@link RamlValidator#validate(RamlValidationCache)} only re-validates the parts whose fingerprint has changed.
+ * Changes in files referenced from inside a schema are not detected.
+ * Not thread safe.
+ */
+public class RamlValidationCache {
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Set<String> used = new HashSet<>();
+    private int validated;
+
+    /**
+     * @return the number of parts that had to be validated in the last run
+     */
+    public int getValidated() {
+        return validated;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    void start() {
+        used.clear();
+        validated = 0;
+    }
+
+    void end() {
+        entries.keySet().retainAll(used);
+    }
+
+    RamlViolations get(String key, byte[] fingerprint) {
+        used.add(key);
+        final Entry entry = entries.get(key);
+        return fingerprint != null && entry != null && Arrays.equals(fingerprint, entry.fingerprint) ? entry.violations : null;
+    }
+
+    void put(String key, byte[] fingerprint, RamlViolations violations) {
+        validated++;
+        entries.put(key, new Entry(fingerprint, violations));
+    }
+
+    /**
+     * @param parts the serializable objects to fingerprint
+     * @return the digest of the serialized parts or null if they cannot be serialized
+     */
+    static byte[] fingerprint(Object... parts) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (final ObjectOutputStream out = new ObjectOutputStream(new DigestOutputStream(new NullOutputStream(), digest))) {
+                for (final Object part : parts) {
+                    out.writeObject(part);
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return null;
+        }
+    }
+
+    private static class Entry {
+        final byte[] fingerprint;
+        final RamlViolations violations;
+
+        public Entry(byte[] fingerprint, RamlViolations violations) {
+            this.fingerprint = fingerprint;
+            this.violations = violations;
+        }
+    }
+
+    private static class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+            //ignore
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            //ignore
+        }
+    }
+}
@@ -17,10 +17,13 @@ package guru.nidi.ramltester.core;
 
 import org.raml.model.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-
-import static guru.nidi.ramltester.core.RamlValidatorChecker.ParamName.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  *
@@ -28,7 +31,6 @@ import static guru.nidi.ramltester.core.RamlValidatorChecker.ParamName.*;
 public class RamlValidator {
     private final Raml raml;
     private final List<SchemaValidator> schemaValidators;
-    private final Locator locator;
     private final RamlValidatorChecker checker;
 
     public RamlValidator(Raml raml, List<SchemaValidator> schemaValidators) {
@@ -39,7 +41,6 @@ public class RamlValidator {
         this.raml = raml;
         this.schemaValidators = schemaValidators;
         this.checker = checker;
-        this.locator = checker.getLocator();
     }
 
     public RamlValidator withChecks(Validation... validations) {
@@ -59,74 +60,155 @@ public class RamlValidator {
     }
 
     public RamlReport validate() {
-        checker.parameters(raml.getBaseUriParameters(), BASE_URI);
-        checker.description(raml.getDocumentation());
-        checker.description(raml.getBaseUriParameters(), BASE_URI);
+        RamlValidatorTraversal.root(checker, raml);
         for (final Resource resource : raml.getResources().values()) {
-            resource(resource);
+            RamlValidatorTraversal.resource(checker, resource);
         }
         return checker.getReport();
     }
 
-    private void resource(Resource resource) {
-        locator.resource(resource);
-        checker.resourcePattern(resource);
-        checker.uriParameters(resource.getUriParameters().keySet(), resource);
-        checker.parameters(resource.getBaseUriParameters(), BASE_URI);
-        checker.parameters(resource.getUriParameters(), URI);
-        checker.description(resource.getDescription());
-        checker.description(resource.getBaseUriParameters(), BASE_URI);
-        checker.description(resource.getUriParameters(), URI);
-        checker.empty(resource);
-        for (final Resource res : resource.getResources().values()) {
-            resource(res);
+    /**
+     * Validates the resources in parallel.
+     * The report is the same as the one of {@link #validate()}.
+     *
+     * @param executor the executor to run the validation in
+     * @return the report
+     */
+    public RamlReport validate(ExecutorService executor) {
+        RamlValidatorTraversal.root(checker, raml);
+        final List<Future<RamlViolations>> parts = new ArrayList<>();
+        for (final Resource resource : raml.getResources().values()) {
+            submit(executor, resource, parts);
         }
-        for (final Action action : resource.getActions().values()) {
-            action(action);
+        try {
+            for (final Future<RamlViolations> part : parts) {
+                checker.getViolations().addAll(part.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RamlCheckerException("Interrupted while validating", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RamlCheckerException("Problem validating", e.getCause());
+        } finally {
+            for (final Future<RamlViolations> part : parts) {
+                part.cancel(true);
+            }
         }
+        return checker.getReport();
     }
 
-    private void action(Action action) {
-        locator.action(action);
-        checker.parameters(action.getBaseUriParameters(), BASE_URI);
-        checker.parameters(action.getQueryParameters(), QUERY);
-        checker.headerPattern(action.getHeaders().keySet());
-        checker.description(action.getDescription());
-        checker.description(action.getBaseUriParameters(), BASE_URI);
-        checker.description(action.getQueryParameters(), QUERY);
-        checker.description(action.getHeaders(), HEADER);
-        checker.empty(action);
-        if (action.getBody() != null) {
-            for (final MimeType mimeType : action.getBody().values()) {
-                locator.requestMime(mimeType);
-                mimeType(mimeType);
+    /**
+     * Submits the parts of a resource in the same order as a sequential validation visits them.
+     */
+    private void submit(ExecutorService executor, final Resource resource, List<Future<RamlViolations>> parts) {
+        parts.add(executor.submit(new Callable<RamlViolations>() {
+            @Override
+            public RamlViolations call() {
+                final RamlValidatorChecker resourceChecker = checker.forPart();
+                RamlValidatorTraversal.resourceOnly(resourceChecker, resource);
+                return resourceChecker.getViolations();
             }
+        }));
+        for (final Resource res : resource.getResources().values()) {
+            submit(executor, res, parts);
         }
-        for (final Map.Entry<String, Response> entry : action.getResponses().entrySet()) {
-            locator.responseCode(entry.getKey());
-            response(entry.getValue());
+        parts.add(executor.submit(new Callable<RamlViolations>() {
+            @Override
+            public RamlViolations call() {
+                final RamlValidatorChecker actionChecker = checker.forPart();
+                RamlValidatorTraversal.actions(actionChecker, resource);
+                return actionChecker.getViolations();
+            }
+        }));
+    }
+
+    /**
+     * Validates only the parts of the raml that changed since the last validation with the given cache.
+     * The report is the same as the one of {@link #validate()}.
+     *
+     * @param cache the violations and fingerprints of the last validation
+     * @return the report
+     */
+    public RamlReport validate(RamlValidationCache cache) {
+        cache.start();
+        final String config = checker.configuration();
+        final byte[] rootPrint = RamlValidationCache.fingerprint(config, raml.getBaseUri(), raml.getBaseUriParameters(), raml.getDocumentation());
+        RamlViolations violations = cache.get("", rootPrint);
+        if (violations == null) {
+            final RamlValidatorChecker rootChecker = checker.forPart();
+            RamlValidatorTraversal.root(rootChecker, raml);
+            violations = rootChecker.getViolations();
+            cache.put("", rootPrint, violations);
         }
+        checker.getViolations().addAll(violations);
+        for (final Resource resource : raml.getResources().values()) {
+            resource(cache, config, resource);
+        }
+        cache.end();
+        return checker.getReport();
     }
 
-    private void mimeType(MimeType mimeType) {
-        if (mimeType.getFormParameters() != null) {
-            checker.formParameters(mimeType);
-            checker.parameters(mimeType.getFormParameters(), FORM);
-            checker.description(mimeType.getFormParameters(), FORM);
+    private void resource(RamlValidationCache cache, String config, Resource resource) {
+        final byte[] resourcePrint = RamlValidationCache.fingerprint(config, raml.getBaseUri(),
+                resource.getRelativeUri(), resource.getUri(), resource.getDescription(),
+                resource.getUriParameters(), resource.getBaseUriParameters(),
+                resource.getActions().isEmpty() && resource.getResources().isEmpty());
+        RamlViolations violations = cache.get(resource.getUri(), resourcePrint);
+        if (violations == null) {
+            final RamlValidatorChecker resourceChecker = checker.forPart();
+            RamlValidatorTraversal.resourceOnly(resourceChecker, resource);
+            violations = resourceChecker.getViolations();
+            cache.put(resource.getUri(), resourcePrint, violations);
+        }
+        checker.getViolations().addAll(violations);
+        for (final Resource res : resource.getResources().values()) {
+            resource(cache, config, res);
+        }
+        final byte[] actionsPrint = RamlValidationCache.fingerprint(config, raml.getBaseUri(), resource.getUri(), actionParts(resource));
+        final String actionsKey = resource.getUri() + " actions";
+        violations = cache.get(actionsKey, actionsPrint);
+        if (violations == null) {
+            final RamlValidatorChecker actionChecker = checker.forPart();
+            RamlValidatorTraversal.actions(actionChecker, resource);
+            violations = actionChecker.getViolations();
+            cache.put(actionsKey, actionsPrint, violations);
         }
-        checker.exampleSchema(mimeType);
+        checker.getViolations().addAll(violations);
     }
 
-    private void response(Response response) {
-        checker.headerPattern(response.getHeaders().keySet());
-        checker.description(response.getDescription());
-        checker.description(response.getHeaders(), HEADER);
-        if (response.getBody() != null) {
-            for (final MimeType mimeType : response.getBody().values()) {
-                locator.responseMime(mimeType);
-                mimeType(mimeType);
+    /**
+     * Everything the validation of the actions depends on, without the back reference from action to resource.
+     */
+    private List<Object> actionParts(Resource resource) {
+        final List<Object> parts = new ArrayList<>();
+        for (final Action action : resource.getActions().values()) {
+            parts.add(action.getType());
+            parts.add(action.getDescription());
+            parts.add(action.getBaseUriParameters());
+            parts.add(action.getQueryParameters());
+            parts.add(action.getHeaders());
+            parts.add(action.getBody());
+            parts.add(action.getResponses());
+            if (action.getBody() != null) {
+                schemaParts(action.getBody(), parts);
+            }
+            for (final Response response : action.getResponses().values()) {
+                if (response.getBody() != null) {
+                    schemaParts(response.getBody(), parts);
+                }
             }
         }
+        return parts;
     }
 
+    private void schemaParts(Map<String, MimeType> body, List<Object> parts) {
+        for (final MimeType mimeType : body.values()) {
+            if (mimeType.getSchema() != null) {
+                parts.add(raml.getConsolidatedSchemas().get(mimeType.getSchema()));
+            }
+        }
+    }
 }
@@ -65,6 +65,10 @@ class RamlValidatorChecker {
     }
 
     public RamlValidatorChecker(Raml raml, Locator locator, List<SchemaValidator> schemaValidators, EnumSet<Validation> validations, Pattern resourcePattern, Pattern parameterPattern, Pattern headerPattern) {
+        this(raml, locator, schemaValidators, validations, resourcePattern, parameterPattern, headerPattern, new RamlReport(raml));
+    }
+
+    private RamlValidatorChecker(Raml raml, Locator locator, List<SchemaValidator> schemaValidators, EnumSet<Validation> validations, Pattern resourcePattern, Pattern parameterPattern, Pattern headerPattern, RamlReport report) {
         this.raml = raml;
         this.locator = locator;
         this.resourcePattern = resourcePattern;
@@ -72,8 +76,17 @@ class RamlValidatorChecker {
         this.headerPattern = headerPattern;
         this.schemaValidators = schemaValidators;
         this.validations = validations;
-        this.report = new RamlReport(raml);
-        this.violations = report.getValidationViolations();
+        this.report = report;
+        this.violations = report == null ? new RamlViolations() : report.getValidationViolations();
+    }
+
+    /**
+     * A checker with the same configuration, but its own locator and violations, to check a part of the raml concurrently.
+     *
+     * @return the new checker
+     */
+    public RamlValidatorChecker forPart() {
+        return new RamlValidatorChecker(raml, new Locator(), schemaValidators, validations, resourcePattern, parameterPattern, headerPattern, null);
     }
 
     public RamlValidatorChecker withChecks(Validation... validations) {
@@ -101,6 +114,17 @@ class RamlValidatorChecker {
         return report;
     }
 
+    public RamlViolations getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return a string describing the checks done, two checkers with the same configuration report the same violations.
+     */
+    public String configuration() {
+        return validations + " " + resourcePattern + " " + parameterPattern + " " + headerPattern;
+    }
+
     private boolean has(Validation validation) {
         return validations.contains(validation);
     }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+import org.raml.model.*;
+
+import java.util.Map;
+
+import static guru.nidi.ramltester.core.RamlValidatorChecker.ParamName.*;
+
+/**
+ * Visits the parts of a raml in the order of a sequential validation and gives them to a {@link RamlValidatorChecker}.
+ */
+final class RamlValidatorTraversal {
+    private RamlValidatorTraversal() {
+    }
+
+    public static void root(RamlValidatorChecker checker, Raml raml) {
+        checker.parameters(raml.getBaseUriParameters(), BASE_URI);
+        checker.description(raml.getDocumentation());
+        checker.description(raml.getBaseUriParameters(), BASE_URI);
+    }
+
+    public static void resource(RamlValidatorChecker checker, Resource resource) {
+        resourceOnly(checker, resource);
+        for (final Resource res : resource.getResources().values()) {
+            resource(checker, res);
+        }
+        actions(checker, resource);
+    }
+
+    public static void resourceOnly(RamlValidatorChecker checker, Resource resource) {
+        checker.getLocator().resource(resource);
+        checker.resourcePattern(resource);
+        checker.uriParameters(resource.getUriParameters().keySet(), resource);
+        checker.parameters(resource.getBaseUriParameters(), BASE_URI);
+        checker.parameters(resource.getUriParameters(), URI);
+        checker.description(resource.getDescription());
+        checker.description(resource.getBaseUriParameters(), BASE_URI);
+        checker.description(resource.getUriParameters(), URI);
+        checker.empty(resource);
+    }
+
+    public static void actions(RamlValidatorChecker checker, Resource resource) {
+        for (final Action action : resource.getActions().values()) {
+            action(checker, action);
+        }
+    }
+
+    private static void action(RamlValidatorChecker checker, Action action) {
+        final Locator locator = checker.getLocator();
+        locator.action(action);
+        checker.parameters(action.getBaseUriParameters(), BASE_URI);
+        checker.parameters(action.getQueryParameters(), QUERY);
+        checker.headerPattern(action.getHeaders().keySet());
+        checker.description(action.getDescription());
+        checker.description(action.getBaseUriParameters(), BASE_URI);
+        checker.description(action.getQueryParameters(), QUERY);
+        checker.description(action.getHeaders(), HEADER);
+        checker.empty(action);
+        if (action.getBody() != null) {
+            for (final MimeType mimeType : action.getBody().values()) {
+                locator.requestMime(mimeType);
+                mimeType(checker, mimeType);
+            }
+        }
+        for (final Map.Entry<String, Response> entry : action.getResponses().entrySet()) {
+            locator.responseCode(entry.getKey());
+            response(checker, entry.getValue());
+        }
+    }
+
+    private static void mimeType(RamlValidatorChecker checker, MimeType mimeType) {
+        if (mimeType.getFormParameters() != null) {
+            checker.formParameters(mimeType);
+            checker.parameters(mimeType.getFormParameters(), FORM);
+            checker.description(mimeType.getFormParameters(), FORM);
+        }
+        checker.exampleSchema(mimeType);
+    }
+
+    private static void response(RamlValidatorChecker checker, Response response) {
+        checker.headerPattern(response.getHeaders().keySet());
+        checker.description(response.getDescription());
+        checker.description(response.getHeaders(), HEADER);
+        if (response.getBody() != null) {
+            for (final MimeType mimeType : response.getBody().values()) {
+                checker.getLocator().responseMime(mimeType);
+                mimeType(checker, mimeType);
+            }
+        }
+    }
+}
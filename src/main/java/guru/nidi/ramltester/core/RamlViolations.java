@@ -26,10 +26,21 @@ import java.util.List;
  *
  */
 public class RamlViolations implements Iterable<RamlViolationMessage> {
-    private final List<RamlViolationMessage> messages;
+    //created on the first violation, most exchanges have none
+    private List<RamlViolationMessage> messages;
+    private final int limit;
+    private int dropped;
 
     public RamlViolations() {
-        messages = new ArrayList<>();
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param limit the maximum number of messages kept.
+     *              If more messages are added, they are dropped and the last message tells how many have been dropped.
+     */
+    public RamlViolations(int limit) {
+        this.limit = limit;
     }
 
     public void add(Message message) {
@@ -37,7 +48,34 @@ public class RamlViolations implements Iterable<RamlViolationMessage> {
     }
 
     public void add(Message message, Object cause) {
-        messages.add(new RamlViolationMessage(message.toString(), cause));
+        if (isFull()) {
+            drop(1);
+        } else {
+            list().add(new RamlViolationMessage(message.toString(), cause));
+        }
+    }
+
+    private boolean isFull() {
+        return dropped > 0 || size() >= limit;
+    }
+
+    private List<RamlViolationMessage> list() {
+        if (messages == null) {
+            messages = new ArrayList<>();
+        }
+        return messages;
+    }
+
+    private List<RamlViolationMessage> messages() {
+        return messages == null ? Collections.<RamlViolationMessage>emptyList() : messages;
+    }
+
+    private void drop(int count) {
+        if (dropped == 0) {
+            list().add(null);
+        }
+        dropped += count;
+        messages.set(messages.size() - 1, new RamlViolationMessage(new Message("violations.more", dropped).toString(), null));
     }
 
     void add(String key, Object... params) {
@@ -55,29 +93,39 @@ public class RamlViolations implements Iterable<RamlViolationMessage> {
     }
 
     void addAll(RamlViolations violations) {
-        this.messages.addAll(violations.messages);
+        final int count = violations.size() - (violations.dropped > 0 ? 1 : 0);
+        for (int i = 0; i < count; i++) {
+            if (isFull()) {
+                drop(count - i);
+                break;
+            }
+            list().add(violations.messages.get(i));
+        }
+        if (violations.dropped > 0) {
+            drop(violations.dropped);
+        }
     }
 
     public int size() {
-        return messages.size();
+        return messages == null ? 0 : messages.size();
     }
 
     public boolean isEmpty() {
-        return messages.isEmpty();
+        return size() == 0;
     }
 
     public List<RamlViolationMessage> asList() {
-        return Collections.unmodifiableList(messages);
+        return messages == null ? Collections.<RamlViolationMessage>emptyList() : Collections.unmodifiableList(messages);
     }
 
     @Override
     public Iterator<RamlViolationMessage> iterator() {
-        return messages.iterator();
+        return messages().iterator();
     }
 
     @Override
     public String toString() {
-        return messages.toString();
+        return messages().toString();
     }
 
     @Override
@@ -90,12 +138,12 @@ public class RamlViolations implements Iterable<RamlViolationMessage> {
         }
 
         final RamlViolations that = (RamlViolations) o;
-        return messages.equals(that.messages);
+        return messages().equals(that.messages());
 
     }
 
     @Override
     public int hashCode() {
-        return messages.hashCode();
+        return messages().hashCode();
     }
 }
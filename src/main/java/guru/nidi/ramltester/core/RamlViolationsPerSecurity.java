@@ -33,14 +33,14 @@ class RamlViolationsPerSecurity {
     private final List<SecurityScheme> schemes;
     private final Map<String, RamlViolations> requestViolations, responseViolations;
 
-    public RamlViolationsPerSecurity(SecurityExtractor security) {
+    public RamlViolationsPerSecurity(SecurityExtractor security, int maxViolations) {
         schemes = new ArrayList<>(security.getSchemes());
         Collections.sort(schemes, SCHEME_COMPARATOR);
         requestViolations = new HashMap<>();
         responseViolations = new HashMap<>();
         for (final SecurityScheme scheme : schemes) {
-            requestViolations.put(scheme.getType(), new RamlViolations());
-            responseViolations.put(scheme.getType(), new RamlViolations());
+            requestViolations.put(scheme.getType(), new RamlViolations(maxViolations));
+            responseViolations.put(scheme.getType(), new RamlViolations(maxViolations));
         }
     }
 
@@ -68,6 +68,21 @@ class RamlViolationsPerSecurity {
         return res;
     }
 
+    public void addRequestViolations(RamlViolationsPerSecurity source) {
+        for (final SecurityScheme scheme : schemes) {
+            requestViolations(scheme).addAll(source.requestViolations(scheme));
+        }
+    }
+
+    public boolean allHaveViolations() {
+        for (final SecurityScheme scheme : schemes) {
+            if (requestViolations(scheme).isEmpty() && responseViolations(scheme).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void addLeastViolations(RamlViolations request, RamlViolations response) {
         for (final SecurityScheme scheme : leastViolations()) {
             addAll(scheme, requestViolations(scheme), request);
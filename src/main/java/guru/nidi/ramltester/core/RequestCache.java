@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.core;
+
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.Values;
+import org.raml.model.Action;
+import org.raml.model.Raml;
+
+import java.util.*;
+
+/**
+ * Remembers the outcome of checking the request of an exchange, so repeated identical requests only need their response checked.
+ * Only requests without a body are cached.
+ * The key consists of the method, the URL, the query parameters and the headers with the case of their names.
+ * Of the volatile headers, only the presence is part of the key, their values must not influence the check.
+ * Thread safe, it is shared by all checkers of a config.
+ */
+public class RequestCache {
+    private final int maxEntries;
+    private final Set<String> volatileHeaders;
+    private final Map<Key, Entry> entries;
+    private long hits, misses;
+
+    /**
+     * @param maxEntries      the maximum number of cached requests, the least recently used are evicted first
+     * @param volatileHeaders the headers whose values are ignored, like <code>Date</code> or <code>X-Request-Id</code>
+     */
+    public RequestCache(int maxEntries, Collection<String> volatileHeaders) {
+        this.maxEntries = maxEntries;
+        this.volatileHeaders = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        this.volatileHeaders.addAll(volatileHeaders);
+        entries = new LruMap<>(maxEntries);
+    }
+
+    /**
+     * @return an empty cache with the same settings
+     */
+    public RequestCache emptyCopy() {
+        return new RequestCache(maxEntries, volatileHeaders);
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the key of the request or null if the request cannot be cached
+     */
+    Key key(RamlRequest request, String baseUri, boolean includeServletPath) {
+        if (request.getContentType() != null) {
+            return null;
+        }
+        final byte[] content = request.getContent();
+        if (content != null && content.length > 0) {
+            return null;
+        }
+        final Values headers = new Values();
+        for (final Map.Entry<String, List<Object>> header : request.getHeaderValues()) {
+            //the cached violations contain the header names, so they must match exactly
+            final String name = header.getKey();
+            if (volatileHeaders.contains(name)) {
+                headers.setValue(name, "");
+            } else {
+                headers.addValues(name, header.getValue());
+            }
+        }
+        final Values query = new Values();
+        query.addValues(request.getQueryValues());
+        return new Key(request.getMethod(), request.getRequestUrl(baseUri, includeServletPath), query, headers);
+    }
+
+    /**
+     * @return the cached entry or null if there is none for the given raml
+     */
+    synchronized Entry get(Key key, Raml raml) {
+        final Entry entry = entries.get(key);
+        //a reloaded raml has a new identity, the entries of the old one are stale
+        if (entry == null || entry.raml != raml) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry;
+    }
+
+    synchronized void put(Key key, Entry entry) {
+        entries.put(key, entry);
+    }
+
+    private static class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+
+        public LruMap(int maxEntries) {
+            super(16, .75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    static final class Key {
+        private final String method;
+        private final String url;
+        private final Values query;
+        private final Values headers;
+
+        public Key(String method, String url, Values query, Values headers) {
+            this.method = method;
+            this.url = url;
+            this.query = query;
+            this.headers = headers;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return method.equals(key.method) && url.equals(key.url) && query.equals(key.query) && headers.equals(key.headers);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * method.hashCode() + url.hashCode()) + query.hashCode()) + headers.hashCode();
+        }
+    }
+
+    /**
+     * The result of checking a request, it is not modified once it is cached.
+     */
+    static final class Entry {
+        final Raml raml;
+        final Action action;
+        final SecurityExtractor security;
+        private final Usage usage = new Usage();
+        private final RamlViolations requestViolations;
+        private final RamlViolationsPerSecurity violationsPerSecurity;
+
+        public Entry(Raml raml, Action action, SecurityExtractor security, Usage usage, RamlViolations requestViolations, RamlViolationsPerSecurity violationsPerSecurity, int maxViolations) {
+            this.raml = raml;
+            this.action = action;
+            this.security = security;
+            this.usage.add(usage);
+            this.requestViolations = new RamlViolations(maxViolations);
+            this.requestViolations.addAll(requestViolations);
+            this.violationsPerSecurity = new RamlViolationsPerSecurity(security, maxViolations);
+            this.violationsPerSecurity.addRequestViolations(violationsPerSecurity);
+        }
+
+        /**
+         * Add the cached usage and violations to the ones of a new check.
+         *
+         * @return the violations per security scheme of the new check
+         */
+        public RamlViolationsPerSecurity restore(Usage usage, RamlViolations requestViolations, int maxViolations) {
+            usage.add(this.usage);
+            requestViolations.addAll(this.requestViolations);
+            final RamlViolationsPerSecurity res = new RamlViolationsPerSecurity(security, maxViolations);
+            res.addRequestViolations(violationsPerSecurity);
+            return res;
+        }
+    }
+}
@@ -138,26 +138,32 @@ public class Usage implements Iterable<Map.Entry<String, Usage.Resource>> {
     }
 
     static class Action extends UsageBase {
-        private final Map<String, Response> responses = new HashMap<>();
-        private final Map<String, MimeType> mimeTypes = new HashMap<>();
+        private Map<String, Response> responses;
+        private Map<String, MimeType> mimeTypes;
         private final CountSet<String> queryParameters = new CountSet<>();
         private final CountSet<String> requestHeaders = new CountSet<>();
         private final CountSet<String> responseCodes = new CountSet<>();
 
         public Response response(String name) {
+            if (responses == null) {
+                responses = new HashMap<>();
+            }
             return getOrCreate(Response.class, responses, name);
         }
 
         public Iterable<Map.Entry<String, Response>> responses() {
-            return responses.entrySet();
+            return responses == null ? Collections.<Map.Entry<String, Response>>emptySet() : responses.entrySet();
         }
 
         public MimeType mimeType(String name) {
+            if (mimeTypes == null) {
+                mimeTypes = new HashMap<>();
+            }
             return getOrCreate(MimeType.class, mimeTypes, name);
         }
 
         public Iterable<Map.Entry<String, MimeType>> mimeTypes() {
-            return mimeTypes.entrySet();
+            return mimeTypes == null ? Collections.<Map.Entry<String, MimeType>>emptySet() : mimeTypes.entrySet();
         }
 
         public void addQueryParameters(Set<String> names) {
@@ -203,8 +209,8 @@ public class Usage implements Iterable<Map.Entry<String, Usage.Resource>> {
         @Override
         public String toString() {
             return "Action{" +
-                    "responses=" + responses +
-                    ", mimeTypes=" + mimeTypes +
+                    "responses=" + (responses == null ? "{}" : responses) +
+                    ", mimeTypes=" + (mimeTypes == null ? "{}" : mimeTypes) +
                     ", queryParameters=" + queryParameters +
                     ", requestHeaders=" + requestHeaders +
                     ", responseCodes=" + responseCodes +
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.httpcomponents;
+
+import guru.nidi.ramltester.util.BoundedBuffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The bytes of a body as they pass through the client, up to a limit.
+ */
+class BodyCapture {
+    private final int limit;
+    private BoundedBuffer bytes;
+
+    public BodyCapture(int limit) {
+        this.limit = limit;
+    }
+
+    public void add(ByteBuffer buffer, int start, int len) {
+        if (len > 0) {
+            if (bytes == null) {
+                bytes = new BoundedBuffer(limit);
+            }
+            if (buffer.hasArray()) {
+                bytes.write(buffer.array(), buffer.arrayOffset() + start, len);
+            } else {
+                final ByteBuffer data = buffer.duplicate();
+                data.position(start);
+                final byte[] copy = new byte[len];
+                data.get(copy);
+                bytes.write(copy, 0, len);
+            }
+        }
+    }
+
+    public void reset() {
+        bytes = null;
+    }
+
+    public boolean isTruncated() {
+        return bytes != null && bytes.isTruncated();
+    }
+
+    public byte[] captured() {
+        if (bytes == null) {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.httpcomponents;
+
+import guru.nidi.ramltester.model.RamlResponse;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Captures the response body while the delegate consumes it.
+ *
+ * @param <T> the result type of the delegate
+ */
+class CapturingConsumer<T> implements HttpAsyncResponseConsumer<T> {
+    private final HttpAsyncResponseConsumer<T> delegate;
+    private final BodyCapture content;
+    private HttpResponse response;
+
+    public CapturingConsumer(HttpAsyncResponseConsumer<T> delegate, int maxCapture) {
+        this.delegate = delegate;
+        content = new BodyCapture(maxCapture);
+    }
+
+    public boolean isTruncated() {
+        return content.isTruncated();
+    }
+
+    public RamlResponse ramlResponse() {
+        return new HttpComponentsRamlResponse(response, content.captured());
+    }
+
+    @Override
+    public void responseReceived(HttpResponse response) throws IOException, HttpException {
+        this.response = response;
+        content.reset();
+        delegate.responseReceived(response);
+    }
+
+    @Override
+    public void consumeContent(final ContentDecoder decoder, IOControl ioctrl) throws IOException {
+        delegate.consumeContent(new ContentDecoder() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                final int start = dst.position();
+                final int read = decoder.read(dst);
+                content.add(dst, start, read);
+                return read;
+            }
+
+            @Override
+            public boolean isCompleted() {
+                return decoder.isCompleted();
+            }
+        }, ioctrl);
+    }
+
+    @Override
+    public void responseCompleted(HttpContext context) {
+        delegate.responseCompleted(context);
+    }
+
+    @Override
+    public void failed(Exception ex) {
+        delegate.failed(ex);
+    }
+
+    @Override
+    public Exception getException() {
+        return delegate.getException();
+    }
+
+    @Override
+    public T getResult() {
+        return delegate.getResult();
+    }
+
+    @Override
+    public boolean isDone() {
+        return delegate.isDone();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public boolean cancel() {
+        return delegate.cancel();
+    }
+}
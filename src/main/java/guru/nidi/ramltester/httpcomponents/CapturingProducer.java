@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.httpcomponents;
+
+import guru.nidi.ramltester.model.RamlRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.nio.ContentEncoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Captures the request body while the delegate sends it.
+ */
+class CapturingProducer implements HttpAsyncRequestProducer {
+    private final HttpAsyncRequestProducer delegate;
+    private final BodyCapture content;
+    private HttpRequest request;
+
+    public CapturingProducer(HttpAsyncRequestProducer delegate, int maxCapture) {
+        this.delegate = delegate;
+        content = new BodyCapture(maxCapture);
+    }
+
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    public boolean isTruncated() {
+        return content.isTruncated();
+    }
+
+    public RamlRequest ramlRequest() {
+        final byte[] captured = content.captured();
+        return request instanceof HttpUriRequest
+                ? new HttpComponentsRamlRequest((HttpUriRequest) request, captured)
+                : new HttpComponentsRamlRequest(getTarget(), request, captured);
+    }
+
+    @Override
+    public HttpHost getTarget() {
+        return delegate.getTarget();
+    }
+
+    @Override
+    public HttpRequest generateRequest() throws IOException, HttpException {
+        request = delegate.generateRequest();
+        return request;
+    }
+
+    @Override
+    public void produceContent(final ContentEncoder encoder, IOControl ioctrl) throws IOException {
+        delegate.produceContent(new ContentEncoder() {
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                final int start = src.position();
+                final int written = encoder.write(src);
+                content.add(src, start, written);
+                return written;
+            }
+
+            @Override
+            public void complete() throws IOException {
+                encoder.complete();
+            }
+
+            @Override
+            public boolean isCompleted() {
+                return encoder.isCompleted();
+            }
+        }, ioctrl);
+    }
+
+    @Override
+    public void requestCompleted(HttpContext context) {
+        delegate.requestCompleted(context);
+    }
+
+    @Override
+    public void failed(Exception ex) {
+        delegate.failed(ex);
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return delegate.isRepeatable();
+    }
+
+    @Override
+    public void resetRequest() throws IOException {
+        content.reset();
+        delegate.resetRequest();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
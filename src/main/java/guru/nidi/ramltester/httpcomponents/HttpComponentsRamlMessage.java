@@ -16,6 +16,7 @@
 package guru.nidi.ramltester.httpcomponents;
 
 import guru.nidi.ramltester.core.RamlCheckerException;
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.Values;
 import guru.nidi.ramltester.util.IoUtils;
 import org.apache.http.*;
@@ -33,11 +34,11 @@ class HttpComponentsRamlMessage {
     }
 
     protected Values headerValuesOf(HttpMessage message) {
-        final Values headers = new Values();
+        final HeaderValuesBuilder headers = new HeaderValuesBuilder();
         for (final Header header : message.getAllHeaders()) {
-            headers.addValue(header.getName(), header.getValue());
+            headers.add(header.getName(), header.getValue());
         }
-        return headers;
+        return headers.build();
     }
 
     protected HttpResponse buffered(HttpResponse response) {
@@ -31,15 +31,46 @@ public class HttpComponentsRamlRequest extends HttpComponentsRamlMessage impleme
     private final String path;
     private final String url;
     private final HttpRequest request;
+    private final boolean captured;
+    private final byte[] content;
 
     public HttpComponentsRamlRequest(HttpHost host, HttpRequest request) {
+        this(host, request, false, null);
+    }
+
+    public HttpComponentsRamlRequest(HttpUriRequest request) {
+        this(request, false, null);
+    }
+
+    /**
+     * @param host    the target host
+     * @param request the request
+     * @param content the content that was captured while it was sent, the entity is not read
+     */
+    public HttpComponentsRamlRequest(HttpHost host, HttpRequest request, byte[] content) {
+        this(host, request, true, content);
+    }
+
+    /**
+     * @param request the request
+     * @param content the content that was captured while it was sent, the entity is not read
+     */
+    public HttpComponentsRamlRequest(HttpUriRequest request, byte[] content) {
+        this(request, true, content);
+    }
+
+    private HttpComponentsRamlRequest(HttpHost host, HttpRequest request, boolean captured, byte[] content) {
         this.request = request;
+        this.captured = captured;
+        this.content = content;
         path = UriComponents.fromHttpUrl(request.getRequestLine().getUri()).getPath();
         url = host.toString() + request.getRequestLine().getUri();
     }
 
-    public HttpComponentsRamlRequest(HttpUriRequest request) {
+    private HttpComponentsRamlRequest(HttpUriRequest request, boolean captured, byte[] content) {
         this.request = request;
+        this.captured = captured;
+        this.content = content;
         path = request.getURI().getPath();
         url = request.getURI().toString();
     }
@@ -77,6 +108,9 @@ public class HttpComponentsRamlRequest extends HttpComponentsRamlMessage impleme
 
     @Override
     public byte[] getContent() {
+        if (captured) {
+            return content;
+        }
         return (request instanceof HttpEntityEnclosingRequest)
                 ? contentOf(buffered((HttpEntityEnclosingRequest) request).getEntity())
                 : null;
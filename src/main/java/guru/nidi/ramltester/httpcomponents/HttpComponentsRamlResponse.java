@@ -24,9 +24,23 @@ import org.apache.http.HttpResponse;
  */
 public class HttpComponentsRamlResponse extends HttpComponentsRamlMessage implements RamlResponse {
     private final HttpResponse response;
+    private final boolean captured;
+    private final byte[] content;
 
     public HttpComponentsRamlResponse(HttpResponse response) {
         this.response = response;
+        this.captured = false;
+        this.content = null;
+    }
+
+    /**
+     * @param response the response
+     * @param content  the content that was captured while it was consumed, the entity is not read
+     */
+    public HttpComponentsRamlResponse(HttpResponse response, byte[] content) {
+        this.response = response;
+        this.captured = true;
+        this.content = content;
     }
 
     @Override
@@ -41,7 +55,7 @@ public class HttpComponentsRamlResponse extends HttpComponentsRamlMessage implem
 
     @Override
     public byte[] getContent() {
-        return contentOf(buffered(response).getEntity());
+        return captured ? content : contentOf(buffered(response).getEntity());
     }
 
     @Override
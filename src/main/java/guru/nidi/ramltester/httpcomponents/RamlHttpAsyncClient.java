@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.httpcomponents;
+
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.util.DaemonThreadFactory;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.protocol.HttpAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncResponseConsumer;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+
+/**
+ * An asynchronous http client that checks all exchanges.
+ * The bodies are captured up to a limit while they are sent and received, the entities are not buffered again,
+ * see {@link #capturingAtMost(int)}.
+ * The checks run on a separate thread pool, not on the I/O threads.
+ * The returned futures complete and the callbacks are called after the check.
+ * The report of an exchange is stored in its context, see {@link #getReport(HttpContext)}.
+ */
+public class RamlHttpAsyncClient extends CloseableHttpAsyncClient {
+    private static final Logger log = LoggerFactory.getLogger(RamlHttpAsyncClient.class);
+    private static final String RAML_REPORT = "raml.report";
+    private static final int DEFAULT_MAX_CAPTURE = 1024 * 1024;
+
+    private final ThreadLocal<RamlChecker> checkers;
+    private final ReportStore reportStore;
+    private final CloseableHttpAsyncClient delegate;
+    private final ExecutorService executor;
+    private final int maxCapture;
+
+    public RamlHttpAsyncClient(CheckerConfig config) {
+        this(config, HttpAsyncClients.createDefault());
+    }
+
+    public RamlHttpAsyncClient(CheckerConfig config, CloseableHttpAsyncClient delegate) {
+        this(checkers(config), new SharedReportStore(), delegate, Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory("raml-async-checker")), DEFAULT_MAX_CAPTURE);
+    }
+
+    private RamlHttpAsyncClient(ThreadLocal<RamlChecker> checkers, ReportStore reportStore,
+                                CloseableHttpAsyncClient delegate, ExecutorService executor, int maxCapture) {
+        this.checkers = checkers;
+        this.reportStore = reportStore;
+        this.delegate = delegate;
+        this.executor = executor;
+        this.maxCapture = maxCapture;
+    }
+
+    private static ThreadLocal<RamlChecker> checkers(final CheckerConfig config) {
+        return new ThreadLocal<RamlChecker>() {
+            @Override
+            protected RamlChecker initialValue() {
+                return new RamlChecker(config);
+            }
+        };
+    }
+
+    public RamlHttpAsyncClient aggregating(ReportAggregator aggregator) {
+        return new RamlHttpAsyncClient(checkers, new AggregatingReportStore(reportStore, aggregator), delegate, executor, maxCapture);
+    }
+
+    /**
+     * Limit the size of the request and response bodies that are captured for checking, the default is 1 MB.
+     * Exchanges with larger bodies are not checked.
+     *
+     * @param maxBytes the maximum size of a body
+     * @return the new client
+     */
+    public RamlHttpAsyncClient capturingAtMost(int maxBytes) {
+        return new RamlHttpAsyncClient(checkers, reportStore, delegate, executor, maxBytes);
+    }
+
+    /**
+     * @return the report of the exchange that completed last
+     */
+    public RamlReport getLastReport() {
+        return reportStore.getLastReport();
+    }
+
+    /**
+     * @param context the context that was given to execute
+     * @return the report of the exchange or null if it's not checked yet or not checked at all because a body was too large
+     */
+    public static RamlReport getReport(HttpContext context) {
+        return (RamlReport) context.getAttribute(RAML_REPORT);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return delegate.isRunning();
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+        executor.shutdown();
+    }
+
+    @Override
+    public <T> Future<T> execute(HttpAsyncRequestProducer requestProducer, HttpAsyncResponseConsumer<T> responseConsumer,
+                                 HttpContext context, FutureCallback<T> callback) {
+        final HttpContext ctx = context == null ? new BasicHttpContext() : context;
+        final BasicFuture<T> future = new BasicFuture<>(callback);
+        final CapturingProducer producer = new CapturingProducer(requestProducer, maxCapture);
+        final CapturingConsumer<T> consumer = new CapturingConsumer<>(responseConsumer, maxCapture);
+        delegate.execute(producer, consumer, ctx, new FutureCallback<T>() {
+            @Override
+            public void completed(T result) {
+                if (producer.isTruncated() || consumer.isTruncated()) {
+                    log.debug("Body larger than {} bytes, not checking {}", maxCapture, producer.getRequest().getRequestLine());
+                    future.completed(result);
+                    return;
+                }
+                try {
+                    executor.execute(new CheckTask<>(producer, consumer, ctx, future, result));
+                } catch (RejectedExecutionException e) {
+                    //the client is closed
+                    future.failed(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                future.failed(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                future.cancel();
+            }
+        });
+        return future;
+    }
+
+    private class CheckTask<T> implements Runnable {
+        private final CapturingProducer producer;
+        private final CapturingConsumer<T> consumer;
+        private final HttpContext context;
+        private final BasicFuture<T> future;
+        private final T result;
+
+        public CheckTask(CapturingProducer producer, CapturingConsumer<T> consumer, HttpContext context, BasicFuture<T> future, T result) {
+            this.producer = producer;
+            this.consumer = consumer;
+            this.context = context;
+            this.future = future;
+            this.result = result;
+        }
+
+        @Override
+        public void run() {
+            RamlReport report;
+            try {
+                report = checkers.get().check(producer.ramlRequest(), consumer.ramlResponse());
+            } catch (RamlViolationException e) {
+                store(e.getReport());
+                future.failed(e);
+                return;
+            } catch (RuntimeException e) {
+                future.failed(e);
+                return;
+            }
+            store(report);
+            future.completed(result);
+        }
+
+        private void store(RamlReport report) {
+            context.setAttribute(RAML_REPORT, report);
+            synchronized (reportStore) {
+                reportStore.storeReport(report);
+            }
+        }
+    }
+}
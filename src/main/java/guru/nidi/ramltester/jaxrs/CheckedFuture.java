@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.jaxrs;
+
+import guru.nidi.ramltester.core.RamlReport;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ */
+class CheckedFuture<T> implements Future<CheckedResponse<T>> {
+    private final Future<T> delegate;
+    private final AtomicReference<RamlReport> report;
+
+    public CheckedFuture(Future<T> delegate, AtomicReference<RamlReport> report) {
+        this.delegate = delegate;
+        this.report = report;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return delegate.cancel(mayInterruptIfRunning);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return delegate.isDone();
+    }
+
+    @Override
+    public CheckedResponse<T> get() throws InterruptedException, ExecutionException {
+        return new CheckedResponse<>(delegate.get(), report);
+    }
+
+    @Override
+    public CheckedResponse<T> get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return new CheckedResponse<>(delegate.get(timeout, unit), report);
+    }
+}
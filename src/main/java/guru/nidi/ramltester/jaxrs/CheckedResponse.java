@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.jaxrs;
+
+import guru.nidi.ramltester.core.RamlReport;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The result of an invocation together with its report.
+ */
+public class CheckedResponse<T> {
+    private final T entity;
+    private final AtomicReference<RamlReport> report;
+
+    CheckedResponse(T entity, AtomicReference<RamlReport> report) {
+        this.entity = entity;
+        this.report = report;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the report of this invocation.
+     * If the entity is a {@link javax.ws.rs.core.Response}, the report is null until its entity has been read or closed.
+     */
+    public RamlReport getReport() {
+        return report.get();
+    }
+}
@@ -15,16 +15,26 @@
  */
 package guru.nidi.ramltester.jaxrs;
 
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.util.SavingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javax.ws.rs.client.ClientRequestContext;
 import javax.ws.rs.client.ClientRequestFilter;
 import javax.ws.rs.client.ClientResponseContext;
 import javax.ws.rs.client.ClientResponseFilter;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- *
+ * Saves the request entity while it is written and the response entity while the application reads it.
+ * The exchange is checked when the response entity has been read or closed.
+ * Until then, the target has no last report, so it never returns the report of an earlier exchange.
  */
 class CheckingClientFilter implements ClientRequestFilter, ClientResponseFilter {
+    private static final Logger log = LoggerFactory.getLogger(CheckingClientFilter.class);
+
     private final CheckingWebTarget target;
 
     public CheckingClientFilter(CheckingWebTarget target) {
@@ -33,13 +43,39 @@ class CheckingClientFilter implements ClientRequestFilter, ClientResponseFilter
 
     @Override
     public void filter(ClientRequestContext requestContext) throws IOException {
+        target.exchangeStarted();
         if (!(requestContext.getEntityStream() instanceof SavingOutputStream)) {
-            requestContext.setEntityStream(new SavingOutputStream(requestContext.getEntityStream()));
+            requestContext.setEntityStream(new SavingOutputStream(requestContext.getEntityStream(), target.getMaxCapture()));
         }
     }
 
     @Override
-    public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
-        target.check(new JaxrsContextRamlRequest(requestContext), new JaxrsContextRamlResponse(responseContext));
+    public void filter(final ClientRequestContext requestContext, final ClientResponseContext responseContext) throws IOException {
+        if (responseContext.hasEntity()) {
+            responseContext.setEntityStream(new CheckingInputStream(responseContext.getEntityStream(), target.getMaxCapture()) {
+                @Override
+                protected void completed(byte[] content, boolean truncated) {
+                    check(requestContext, responseContext, content, truncated);
+                }
+            });
+        } else {
+            check(requestContext, responseContext, new byte[0], false);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void check(ClientRequestContext requestContext, ClientResponseContext responseContext, byte[] content, boolean truncated) {
+        final boolean requestTruncated = requestContext.getEntityStream() instanceof SavingOutputStream
+                && ((SavingOutputStream) requestContext.getEntityStream()).isTruncated();
+        if (truncated || requestTruncated) {
+            log.info("Not checking {} {}, the body is larger than {} bytes",
+                    requestContext.getMethod(), requestContext.getUri(), target.getMaxCapture());
+        } else {
+            final RamlReport report = target.check(new JaxrsContextRamlRequest(requestContext), new JaxrsContextRamlResponse(responseContext, content));
+            final Object invocationReport = requestContext.getProperty(CheckingWebTarget.REPORT_PROPERTY);
+            if (invocationReport instanceof AtomicReference) {
+                ((AtomicReference<RamlReport>) invocationReport).set(report);
+            }
+        }
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.jaxrs;
+
+import guru.nidi.ramltester.util.SavingInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Saves the data while it is read and calls {@link #completed(byte[], boolean)}
+ * when the end of the stream is reached or the stream is closed.
+ * If it is closed before the end, the rest of the data is read, but at most up to the limit.
+ */
+abstract class CheckingInputStream extends SavingInputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private boolean completed;
+
+    public CheckingInputStream(InputStream delegate, int limit) {
+        super(delegate, limit);
+    }
+
+    /**
+     * @param content   the data of the stream
+     * @param truncated if the data was longer than the limit and content is incomplete
+     */
+    protected abstract void completed(byte[] content, boolean truncated);
+
+    @Override
+    protected void endReached() {
+        if (!completed) {
+            completed = true;
+            completed(getSaved(), isTruncated());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            final byte[] buf = new byte[BUFFER_SIZE];
+            int read = 0;
+            while (read >= 0 && !completed && !isTruncated()) {
+                read = read(buf, 0, buf.length);
+            }
+            endReached();
+        } finally {
+            in.close();
+        }
+    }
+}
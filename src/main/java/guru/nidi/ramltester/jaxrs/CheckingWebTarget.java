@@ -15,6 +15,7 @@
  */
 package guru.nidi.ramltester.jaxrs;
 
+import guru.nidi.ramltester.core.CheckerConfig;
 import guru.nidi.ramltester.core.DummyReportAggragator;
 import guru.nidi.ramltester.core.RamlChecker;
 import guru.nidi.ramltester.core.RamlReport;
@@ -29,18 +30,47 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.UriBuilder;
 import java.net.URI;
 import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- *
+ * A web target that checks all its invocations.
+ * It can be used by concurrent invocations, use {@link #submit(Invocation, Class)} to get the report of an asynchronous invocation.
  */
 public class CheckingWebTarget implements WebTarget {
-    private final RamlChecker checker;
+    static final String REPORT_PROPERTY = "raml.report";
+
+    //a checker keeps the state of the running check, so every thread gets its own
+    private final ThreadLocal<RamlChecker> checkers;
+    private final RamlChecker sharedChecker;
     private final WebTarget target;
-    private RamlReport report;
-    private ReportAggregator aggregator = new DummyReportAggragator();
+    private volatile RamlReport report;
+    private volatile ReportAggregator aggregator = new DummyReportAggragator();
+    private volatile int maxCapture = Integer.MAX_VALUE;
 
+    public CheckingWebTarget(final CheckerConfig config, WebTarget target) {
+        this(new ThreadLocal<RamlChecker>() {
+            @Override
+            protected RamlChecker initialValue() {
+                return new RamlChecker(config);
+            }
+        }, null, target);
+    }
+
+    /**
+     * All invocations are checked by the given checker, so concurrent invocations wait for each other.
+     * Use {@link #CheckingWebTarget(CheckerConfig, WebTarget)} to check concurrent invocations in parallel.
+     *
+     * @param checker the checker
+     * @param target  the target to check
+     */
     public CheckingWebTarget(RamlChecker checker, WebTarget target) {
-        this.checker = checker;
+        this(null, checker, target);
+    }
+
+    private CheckingWebTarget(ThreadLocal<RamlChecker> checkers, RamlChecker sharedChecker, WebTarget target) {
+        this.checkers = checkers;
+        this.sharedChecker = sharedChecker;
         this.target = target;
         if (target.getConfiguration().getProperty("checked") != null) {
             throw new IllegalStateException("This WebTarget is already checking");
@@ -49,11 +79,44 @@ public class CheckingWebTarget implements WebTarget {
         target.register(new CheckingClientFilter(this));
     }
 
-    void check(RamlRequest request, RamlResponse response) {
-        report = checker.check(request, response);
-        aggregator.addReport(report);
+    void exchangeStarted() {
+        report = null;
     }
 
+    RamlReport check(RamlRequest request, RamlResponse response) {
+        final RamlReport checked = sharedChecker == null ? checkers.get().check(request, response) : sharedCheck(request, response);
+        report = checked;
+        final ReportAggregator agg = aggregator;
+        synchronized (agg) {
+            agg.addReport(checked);
+        }
+        return checked;
+    }
+
+    private RamlReport sharedCheck(RamlRequest request, RamlResponse response) {
+        synchronized (sharedChecker) {
+            return sharedChecker.check(request, response);
+        }
+    }
+
+    /**
+     * Submit an invocation asynchronously.
+     *
+     * @param invocation   the invocation, it must have been built from this target
+     * @param responseType the type of the entity
+     * @param <T>          the type of the entity
+     * @return a future with the entity and the report of this invocation
+     */
+    public <T> Future<CheckedResponse<T>> submit(Invocation invocation, Class<T> responseType) {
+        final AtomicReference<RamlReport> invocationReport = new AtomicReference<>();
+        invocation.property(REPORT_PROPERTY, invocationReport);
+        return new CheckedFuture<>(invocation.submit(responseType), invocationReport);
+    }
+
+    /**
+     * @return the report of the last invocation, by any thread.
+     * Null if its response entity has not been read or closed yet or if it was not checked because a body was too large.
+     */
     public RamlReport getLastReport() {
         return report;
     }
@@ -63,6 +126,22 @@ public class CheckingWebTarget implements WebTarget {
         return this;
     }
 
+    /**
+     * Limit the size of the request and response bodies that are saved for checking.
+     * Exchanges with larger bodies are not checked.
+     *
+     * @param maxBytes the maximum size of a body
+     * @return this
+     */
+    public CheckingWebTarget capturingAtMost(int maxBytes) {
+        this.maxCapture = maxBytes;
+        return this;
+    }
+
+    int getMaxCapture() {
+        return maxCapture;
+    }
+
     @Override
     public URI getUri() {
         return target.getUri();
@@ -15,21 +15,16 @@
  */
 package guru.nidi.ramltester.jaxrs;
 
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.Values;
 
 import javax.ws.rs.core.MultivaluedMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  *
  */
 class JaxrsContextRamlMessage {
     protected Values headersOf(MultivaluedMap<String, ?> headers) {
-        final Values values = new Values();
-        for (final Map.Entry<String, ? extends List<?>> entry : headers.entrySet()) {
-            values.addValues(entry.getKey(), entry.getValue());
-        }
-        return values;
+        return new HeaderValuesBuilder().addAll(headers).build();
     }
 }
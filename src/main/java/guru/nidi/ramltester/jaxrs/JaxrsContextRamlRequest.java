@@ -18,6 +18,7 @@ package guru.nidi.ramltester.jaxrs;
 import guru.nidi.ramltester.model.RamlRequest;
 import guru.nidi.ramltester.model.Values;
 import guru.nidi.ramltester.util.FormDecoder;
+import guru.nidi.ramltester.util.SavingOutputStream;
 import guru.nidi.ramltester.util.UriComponents;
 
 import javax.ws.rs.client.ClientRequestContext;
@@ -31,6 +31,11 @@ public class JaxrsContextRamlResponse extends JaxrsContextRamlMessage implements
     private final ClientResponseContext context;
     private final byte[] content;
 
+    /**
+     * Reads the whole entity and replaces it with the data read.
+     *
+     * @param context the response context
+     */
     public JaxrsContextRamlResponse(ClientResponseContext context) {
         this.context = context;
         try {
@@ -41,6 +46,15 @@ public class JaxrsContextRamlResponse extends JaxrsContextRamlMessage implements
         }
     }
 
+    /**
+     * @param context the response context
+     * @param content the entity, it has already been read
+     */
+    public JaxrsContextRamlResponse(ClientResponseContext context, byte[] content) {
+        this.context = context;
+        this.content = content;
+    }
+
     @Override
     public int getStatus() {
         return context.getStatus();
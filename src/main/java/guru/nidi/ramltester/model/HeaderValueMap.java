@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.model;
+
+import java.util.*;
+
+/**
+ * Read-only map with case insensitive keys, backed by flat arrays.
+ * Messages have few headers, so a linear scan is faster than hashing a lower cased name.
+ */
+final class HeaderValueMap extends AbstractMap<String, List<Object>> {
+    private final String[] names;
+    private final List<Object>[] values;
+    private final int size;
+
+    HeaderValueMap(String[] names, List<Object>[] values, int size) {
+        this.names = names;
+        this.values = values;
+        this.size = size;
+    }
+
+    private int indexOf(Object name) {
+        if (name instanceof String) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equalsIgnoreCase((String) name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public List<Object> get(Object key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public Set<Entry<String, List<Object>>> entrySet() {
+        return new AbstractSet<Entry<String, List<Object>>>() {
+            @Override
+            public Iterator<Entry<String, List<Object>>> iterator() {
+                return new Iterator<Entry<String, List<Object>>>() {
+                    private int pos;
+
+                    @Override
+                    public boolean hasNext() {
+                        return pos < size;
+                    }
+
+                    @Override
+                    public Entry<String, List<Object>> next() {
+                        if (pos >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        final Entry<String, List<Object>> entry = new SimpleImmutableEntry<>(names[pos], values[pos]);
+                        pos++;
+                        return entry;
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.model;
+
+import java.util.*;
+
+/**
+ * Collects the headers of a message into read-only {@link Values} with case insensitive names.
+ * Names differing only in case are merged, the first one is kept.
+ * Headers with a single value don't allocate a growable list.
+ */
+public final class HeaderValuesBuilder {
+    private static final int INITIAL_SIZE = 16;
+
+    private String[] names = new String[INITIAL_SIZE];
+    private Object[] firstValues = new Object[INITIAL_SIZE];
+    private List<Object>[] allValues = newLists(INITIAL_SIZE);
+    private int size;
+
+    public HeaderValuesBuilder add(String name, Object value) {
+        final int index = indexOf(name);
+        if (index < 0) {
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                firstValues = Arrays.copyOf(firstValues, size * 2);
+                allValues = Arrays.copyOf(allValues, size * 2);
+            }
+            names[size] = name;
+            firstValues[size] = value;
+            size++;
+        } else {
+            if (allValues[index] == null) {
+                allValues[index] = new ArrayList<>(2);
+                allValues[index].add(firstValues[index]);
+            }
+            allValues[index].add(value);
+        }
+        return this;
+    }
+
+    public HeaderValuesBuilder addAll(String name, Iterable<?> values) {
+        for (final Object value : values) {
+            add(name, value);
+        }
+        return this;
+    }
+
+    public HeaderValuesBuilder addAll(Map<String, ? extends List<?>> values) {
+        for (final Map.Entry<String, ? extends List<?>> entry : values.entrySet()) {
+            addAll(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    public HeaderValuesBuilder addAll(Values values) {
+        for (final Map.Entry<String, List<Object>> entry : values) {
+            addAll(entry.getKey(), entry.getValue());
+        }
+        return this;
+    }
+
+    public Values build() {
+        final List<Object>[] lists = newLists(size);
+        for (int i = 0; i < size; i++) {
+            lists[i] = allValues[i] == null
+                    ? Collections.singletonList(firstValues[i])
+                    : Collections.unmodifiableList(allValues[i]);
+        }
+        return new Values(new HeaderValueMap(Arrays.copyOf(names, size), lists, size));
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object>[] newLists(int size) {
+        return new List[size];
+    }
+}
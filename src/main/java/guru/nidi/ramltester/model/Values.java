@@ -21,12 +21,21 @@ import java.util.*;
  *
  */
 public final class Values implements Iterable<Map.Entry<String, List<Object>>> {
-    private final Map<String, List<Object>> values = new HashMap<>();
+    private final Map<String, List<Object>> values;
 
     public Values() {
+        values = new HashMap<>();
+    }
+
+    /**
+     * Read-only values with case insensitive names, see {@link HeaderValuesBuilder}.
+     */
+    Values(HeaderValueMap values) {
+        this.values = values;
     }
 
     public Values(Map<String, String[]> values) {
+        this();
         for (final Map.Entry<String, String[]> entry : values.entrySet()) {
             addValues(entry.getKey(), Arrays.asList(entry.getValue()));
         }
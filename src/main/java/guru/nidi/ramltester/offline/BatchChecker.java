@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.core.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks recorded exchanges in parallel.
+ * The exchanges are read in the calling thread and handed to the worker threads over a bounded queue,
+ * so the memory needed does not depend on the size of the recording.
+ * The reports are added to the aggregator one at a time.
+ */
+public class BatchChecker {
+    private static final Logger log = LoggerFactory.getLogger(BatchChecker.class);
+    private static final int QUEUE_PER_THREAD = 16;
+
+    private final CheckerConfig config;
+    private final ReportAggregator aggregator;
+    private final int threads;
+
+    public BatchChecker(CheckerConfig config) {
+        this(config, new DummyReportAggragator(), Runtime.getRuntime().availableProcessors());
+    }
+
+    private BatchChecker(CheckerConfig config, ReportAggregator aggregator, int threads) {
+        this.config = config;
+        this.aggregator = aggregator;
+        this.threads = threads;
+    }
+
+    public BatchChecker aggregating(ReportAggregator aggregator) {
+        return new BatchChecker(config, aggregator, threads);
+    }
+
+    public BatchChecker withThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        return new BatchChecker(config, aggregator, threads);
+    }
+
+    /**
+     * Check all exchanges of the reader. The reader is not closed.
+     *
+     * @param reader the exchanges
+     * @return the number of exchanges that were checked, exchanges that cannot be checked (e.g. with an invalid URL) are logged and skipped
+     * @throws IOException          if the reader fails
+     * @throws InterruptedException if the thread is interrupted while waiting for the checks to finish
+     */
+    public long check(ExchangeReader reader) throws IOException, InterruptedException {
+        final ThreadLocal<RamlChecker> checkers = new ThreadLocal<RamlChecker>() {
+            @Override
+            protected RamlChecker initialValue() {
+                return new RamlChecker(config);
+            }
+        };
+        final AtomicLong checked = new AtomicLong();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(threads * QUEUE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            RecordedExchange exchange;
+            while ((exchange = reader.read()) != null) {
+                executor.execute(new CheckTask(checkers, exchange, checked));
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        return checked.get();
+    }
+
+    private class CheckTask implements Runnable {
+        private final ThreadLocal<RamlChecker> checkers;
+        private final RecordedExchange exchange;
+        private final AtomicLong checked;
+
+        public CheckTask(ThreadLocal<RamlChecker> checkers, RecordedExchange exchange, AtomicLong checked) {
+            this.checkers = checkers;
+            this.exchange = exchange;
+            this.checked = checked;
+        }
+
+        @Override
+        public void run() {
+            RamlReport report;
+            try {
+                report = checkers.get().check(exchange.getRequest(), exchange.getResponse());
+            } catch (RamlViolationException e) {
+                report = e.getReport();
+            } catch (RuntimeException e) {
+                log.warn("Could not check {} {}, skipping it: {}", exchange.getRequest().getMethod(), exchange.getRequest().getRequestUrl(null, false), e.toString());
+                return;
+            }
+            checked.incrementAndGet();
+            synchronized (aggregator) {
+                aggregator.addReport(report);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads recorded exchanges one after the other, so that arbitrarily large recordings can be processed.
+ */
+public interface ExchangeReader extends Closeable {
+    /**
+     * @return the next exchange or null if there are no more
+     * @throws IOException if the recording cannot be read
+     */
+    RecordedExchange read() throws IOException;
+}
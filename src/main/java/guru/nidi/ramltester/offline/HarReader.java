@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the entries of a HTTP archive (HAR) file.
+ * The file is parsed as a stream, only one entry at a time is kept in memory.
+ */
+public class HarReader implements ExchangeReader {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonParser parser;
+    private boolean inEntries;
+
+    public HarReader(InputStream in) throws IOException {
+        parser = mapper.getFactory().createParser(in);
+    }
+
+    @Override
+    public RecordedExchange read() throws IOException {
+        if (!inEntries) {
+            inEntries = findEntries();
+            if (!inEntries) {
+                return null;
+            }
+        }
+        final JsonToken token = parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            return null;
+        }
+        return JsonExchanges.fromHar(mapper.<JsonNode>readTree(parser));
+    }
+
+    private boolean findEntries() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if ("entries".equals(name) && value == JsonToken.START_ARRAY) {
+                    return true;
+                }
+                if (!"log".equals(name)) {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.databind.JsonNode;
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
+import guru.nidi.ramltester.model.Values;
+import guru.nidi.ramltester.util.InvalidMediaTypeException;
+import guru.nidi.ramltester.util.MediaType;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Converts the json representations of exchanges.
+ */
+final class JsonExchanges {
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+    private static final String HEADERS = "headers";
+
+    private JsonExchanges() {
+    }
+
+    /**
+     * A HAR entry: <code>{"request":{"method","url","headers":[{"name","value"}],"postData":{"text"}},
+     * "response":{"status","headers","content":{"text","encoding"}}}</code>.
+     */
+    static RecordedExchange fromHar(JsonNode entry) throws IOException {
+        final JsonNode req = required(entry, "request");
+        final Values requestHeaders = harHeaders(req.path(HEADERS));
+        final RecordedRequest request = request(req, requestHeaders,
+                body(req.path("postData").path("text"), req.path("postData").path("encoding"), requestHeaders));
+        final JsonNode res = entry.path("response");
+        if (res.isMissingNode() || res.isNull()) {
+            return new RecordedExchange(request, null);
+        }
+        final Values responseHeaders = harHeaders(res.path(HEADERS));
+        return new RecordedExchange(request, response(res, responseHeaders,
+                body(res.path("content").path("text"), res.path("content").path("encoding"), responseHeaders)));
+    }
+
+    /**
+     * An NDJSON line: <code>{"request":{"method","url","headers":{"name":"value" or ["values"]},"body" or "bodyBase64"},
+     * "response":{"status","headers","body" or "bodyBase64"}}</code>.
+     */
+    static RecordedExchange fromNdjson(JsonNode line) throws IOException {
+        final JsonNode req = required(line, "request");
+        final Values requestHeaders = objectHeaders(req.path(HEADERS));
+        final RecordedRequest request = request(req, requestHeaders, ndjsonBody(req, requestHeaders));
+        final JsonNode res = line.path("response");
+        if (res.isMissingNode() || res.isNull()) {
+            return new RecordedExchange(request, null);
+        }
+        final Values responseHeaders = objectHeaders(res.path(HEADERS));
+        return new RecordedExchange(request, response(res, responseHeaders, ndjsonBody(res, responseHeaders)));
+    }
+
+    private static RecordedRequest request(JsonNode req, Values headers, byte[] body) throws IOException {
+        return new RecordedRequest(required(req, "method").asText(), required(req, "url").asText(), headers, body);
+    }
+
+    private static RecordedResponse response(JsonNode res, Values headers, byte[] body) throws IOException {
+        return new RecordedResponse(required(res, "status").asInt(), headers, body);
+    }
+
+    private static JsonNode required(JsonNode node, String name) throws IOException {
+        final JsonNode value = node.get(name);
+        if (value == null || value.isNull()) {
+            throw new IOException("Missing property '" + name + "' in " + node);
+        }
+        return value;
+    }
+
+    private static Values harHeaders(JsonNode headers) {
+        final HeaderValuesBuilder builder = new HeaderValuesBuilder();
+        for (final JsonNode header : headers) {
+            builder.add(header.path("name").asText(), header.path("value").asText());
+        }
+        return builder.build();
+    }
+
+    private static Values objectHeaders(JsonNode headers) {
+        final HeaderValuesBuilder builder = new HeaderValuesBuilder();
+        final Iterator<Map.Entry<String, JsonNode>> fields = headers.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isArray()) {
+                for (final JsonNode value : field.getValue()) {
+                    builder.add(field.getKey(), value.asText());
+                }
+            } else {
+                builder.add(field.getKey(), field.getValue().asText());
+            }
+        }
+        return builder.build();
+    }
+
+    private static byte[] ndjsonBody(JsonNode message, Values headers) {
+        final JsonNode base64 = message.path("bodyBase64");
+        return base64.isTextual()
+                ? Base64Variants.getDefaultVariant().decode(base64.asText())
+                : body(message.path("body"), base64, headers);
+    }
+
+    private static byte[] body(JsonNode text, JsonNode encoding, Values headers) {
+        if (!text.isTextual()) {
+            return null;
+        }
+        if ("base64".equals(encoding.asText())) {
+            return Base64Variants.getDefaultVariant().decode(text.asText());
+        }
+        return text.asText().getBytes(charsetOf(headers));
+    }
+
+    private static Charset charsetOf(Values headers) {
+        final Object contentType = headers.get("Content-Type") == null ? null : headers.get("Content-Type").get(0);
+        if (contentType != null) {
+            try {
+                return Charset.forName(MediaType.valueOf((String) contentType).getCharset(UTF_8.name()));
+            } catch (InvalidMediaTypeException | IllegalArgumentException e) {
+                //use the default
+            }
+        }
+        return UTF_8;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.Charset;
+
+/**
+ * Reads exchanges from newline delimited json, one exchange per line:
+ * <pre>
+ * {"request": {"method": "POST", "url": "http://host/path?q=1", "headers": {"Content-Type": "application/json"}, "body": "{}"},
+ *  "response": {"status": 200, "headers": {"Set-Cookie": ["a=1", "b=2"]}, "bodyBase64": "e30="}}
+ * </pre>
+ * The response is optional.
+ */
+public class NdjsonReader implements ExchangeReader {
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    public NdjsonReader(InputStream in) {
+        reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+    }
+
+    @Override
+    public RecordedExchange read() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+        } while (line != null && line.trim().isEmpty());
+        if (line == null) {
+            return null;
+        }
+        try {
+            return JsonExchanges.fromNdjson(mapper.readTree(line));
+        } catch (IOException e) {
+            throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.model.RamlMessage;
+import guru.nidi.ramltester.model.Values;
+
+import java.util.List;
+
+/**
+ *
+ */
+abstract class RecordedMessage implements RamlMessage {
+    private final Values headers;
+    private final String contentType;
+    private final byte[] content;
+
+    protected RecordedMessage(Values headers, byte[] content) {
+        this(headers, contentTypeOf(headers), content);
+    }
+
+    protected RecordedMessage(Values headers, String contentType, byte[] content) {
+        this.headers = headers;
+        this.contentType = contentType;
+        this.content = content;
+    }
+
+    protected static String contentTypeOf(Values headers) {
+        final List<Object> types = headers.get("Content-Type");
+        return types == null || types.isEmpty() ? null : (String) types.get(0);
+    }
+
+    @Override
+    public Values getHeaderValues() {
+        return headers;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] getContent() {
+        return content;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.Values;
+import guru.nidi.ramltester.util.FormDecoder;
+import guru.nidi.ramltester.util.UriComponents;
+
+/**
+ * A request that was recorded earlier.
+ */
+public class RecordedRequest extends RecordedMessage implements RamlRequest {
+    private final String method;
+    private final String url;
+    private final String path;
+    private final String servletPath;
+    private final Values queryValues;
+
+    /**
+     * @param method  the http method
+     * @param url     the full URL including the query
+     * @param headers the headers, see {@link guru.nidi.ramltester.model.HeaderValuesBuilder}
+     * @param content the body or null
+     */
+    public RecordedRequest(String method, String url, Values headers, byte[] content) {
+        this(method, url, "", null, null, headers, contentTypeOf(headers), content);
+    }
+
+    /**
+     * @param method      the http method
+     * @param url         the URL
+     * @param servletPath the part of the path belonging to the servlet
+     * @param path        the path without the servlet path, null to take it from the URL
+     * @param queryValues the query parameters, null to take them from the URL
+     * @param headers     the headers
+     * @param contentType the content type
+     * @param content     the body or null
+     */
+    public RecordedRequest(String method, String url, String servletPath, String path, Values queryValues,
+                           Values headers, String contentType, byte[] content) {
+        super(headers, contentType, content);
+        this.method = method;
+        this.url = url;
+        this.path = path;
+        this.servletPath = servletPath;
+        this.queryValues = queryValues;
+    }
+
+    @Override
+    public String getRequestUrl(String baseUri, boolean includeServletPath) {
+        if (baseUri == null) {
+            return url;
+        }
+        final String p = path == null ? UriComponents.fromHttpUrl(url).getPath() : path;
+        return includeServletPath ? baseUri + servletPath + p : baseUri + p;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public Values getQueryValues() {
+        return queryValues == null ? UriComponents.fromHttpUrl(url).getQueryParameters() : queryValues;
+    }
+
+    @Override
+    public Values getFormValues() {
+        return new FormDecoder().decode(this);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.model.RamlResponse;
+import guru.nidi.ramltester.model.Values;
+
+/**
+ * A response that was recorded earlier.
+ */
+public class RecordedResponse extends RecordedMessage implements RamlResponse {
+    private final int status;
+
+    public RecordedResponse(int status, Values headers, byte[] content) {
+        super(headers, content);
+        this.status = status;
+    }
+
+    public RecordedResponse(int status, Values headers, String contentType, byte[] content) {
+        super(headers, contentType, content);
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+}
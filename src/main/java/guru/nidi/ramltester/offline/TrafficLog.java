@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.core.RamlChecker;
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.RamlResponse;
+import org.raml.model.Action;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Appends exchanges in a compact binary format to memory mapped segment files, to be checked later with a {@link TrafficLogReader}.
+ * Writers reserve space in the current segment with an atomic counter and copy the encoded exchange into it, there are no locks.
+ * When a segment is full, the writer that noticed it first creates the next one, the oldest segments are deleted.
+ * Use it in a servlet filter with <code>new ServletTester(trafficLog.createRecorder(config))</code>.
+ */
+public class TrafficLog implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(TrafficLog.class);
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    private static final int DEFAULT_MAX_SEGMENTS = 16;
+
+    private final File directory;
+    private final String name;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Queue<File> files = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Segment> current = new AtomicReference<>();
+    private final ThreadLocal<TrafficLogEncoder> encoders;
+
+    public TrafficLog(File directory, String name) throws IOException {
+        this(directory, name, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS, false);
+    }
+
+    /**
+     * @param directory   the directory of the segment files
+     * @param name        the name of the log, the segment files are named <code>name-000001.rlog</code>
+     * @param segmentSize the size of one segment file in bytes
+     * @param maxSegments the number of segments to keep
+     * @param compress    if the exchanges should be compressed
+     * @throws IOException if the first segment cannot be created
+     */
+    public TrafficLog(File directory, String name, int segmentSize, int maxSegments, final boolean compress) throws IOException {
+        if (segmentSize <= TrafficLogFormat.HEADER_SIZE + TrafficLogFormat.RECORD_HEADER_SIZE || maxSegments < 1) {
+            throw new IllegalArgumentException("Invalid segment size or count");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        encoders = new ThreadLocal<TrafficLogEncoder>() {
+            @Override
+            protected TrafficLogEncoder initialValue() {
+                return new TrafficLogEncoder(compress);
+            }
+        };
+        final List<File> existing = TrafficLogFormat.segments(directory, name);
+        files.addAll(existing);
+        current.set(openSegment(existing.isEmpty() ? 0 : TrafficLogFormat.index(existing.get(existing.size() - 1)) + 1));
+        deleteOldSegments();
+    }
+
+    /**
+     * Record an exchange. Errors are logged but not thrown, so recording never disturbs the application.
+     *
+     * @param request  the request
+     * @param response the response or null
+     * @return if the exchange was recorded
+     */
+    public boolean append(RamlRequest request, RamlResponse response) {
+        final TrafficLogEncoder encoder = encoders.get();
+        try {
+            encoder.encode(request, response);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not encode exchange: {}", e.toString());
+            return false;
+        }
+        if (TrafficLogFormat.HEADER_SIZE + TrafficLogFormat.RECORD_HEADER_SIZE + encoder.getLength() > segmentSize) {
+            log.warn("Exchange {} {} of {} bytes does not fit into a segment", request.getMethod(), request.getRequestUrl(null, false), encoder.getLength());
+            return false;
+        }
+        Segment segment;
+        while ((segment = current.get()) != null) {
+            if (segment.write(encoder)) {
+                return true;
+            }
+            roll(segment);
+        }
+        return false;
+    }
+
+    /**
+     * @param config the config whose raml is used in the reports
+     * @return a checker that records all exchanges and returns empty reports
+     */
+    public RamlChecker createRecorder(CheckerConfig config) {
+        return new RecordingChecker(config);
+    }
+
+    private void roll(Segment full) {
+        if (!full.startRolling()) {
+            //another thread is creating the next segment
+            Thread.yield();
+            return;
+        }
+        Segment next = null;
+        try {
+            next = openSegment(full.index + 1);
+        } catch (IOException e) {
+            log.error("Could not create new segment, recording stopped", e);
+        }
+        if (!current.compareAndSet(full, next) && next != null) {
+            //closed in the meantime
+            next.close();
+        }
+        full.close();
+        deleteOldSegments();
+    }
+
+    private Segment openSegment(int index) throws IOException {
+        final File file = new File(directory, TrafficLogFormat.fileName(name, index));
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buffer.putInt(0, TrafficLogFormat.MAGIC);
+            buffer.putInt(4, TrafficLogFormat.VERSION);
+            files.add(file);
+            return new Segment(index, buffer);
+        }
+    }
+
+    private void deleteOldSegments() {
+        while (files.size() > maxSegments) {
+            final File file = files.poll();
+            if (file != null && !file.delete()) {
+                log.warn("Could not delete old segment {}", file);
+            }
+        }
+    }
+
+    /**
+     * Stop recording and flush the current segment.
+     */
+    @Override
+    public void close() {
+        final Segment segment = current.getAndSet(null);
+        if (segment != null) {
+            segment.close();
+        }
+    }
+
+    private class RecordingChecker extends RamlChecker {
+        private final CheckerConfig config;
+
+        public RecordingChecker(CheckerConfig config) {
+            super(config);
+            this.config = config;
+        }
+
+        @Override
+        public RamlReport check(RamlRequest request, RamlResponse response) {
+            append(request, response);
+            return new RamlReport(config.raml);
+        }
+
+        @Override
+        public Action findAction(RamlRequest request) {
+            return null;
+        }
+    }
+
+    private static class Segment {
+        private final int index;
+        private final MappedByteBuffer buffer;
+        private final AtomicLong position = new AtomicLong(TrafficLogFormat.HEADER_SIZE);
+        private final AtomicInteger writers = new AtomicInteger();
+        private final AtomicBoolean rolling = new AtomicBoolean();
+
+        public Segment(int index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+
+        public boolean write(TrafficLogEncoder encoder) {
+            writers.incrementAndGet();
+            try {
+                if (rolling.get()) {
+                    return false;
+                }
+                final int length = encoder.getLength();
+                final long start = position.getAndAdd(TrafficLogFormat.RECORD_HEADER_SIZE + length);
+                if (start + TrafficLogFormat.RECORD_HEADER_SIZE + length > buffer.capacity()) {
+                    return false;
+                }
+                final ByteBuffer target = buffer.duplicate();
+                target.position((int) start + 4);
+                target.put(encoder.getFlags());
+                target.put(encoder.getData(), 0, length);
+                //the length marks the record as complete
+                buffer.putInt((int) start, length);
+                return true;
+            } finally {
+                writers.decrementAndGet();
+            }
+        }
+
+        public boolean startRolling() {
+            return rolling.compareAndSet(false, true);
+        }
+
+        public void close() {
+            rolling.set(true);
+            //no new writes can start, wait for the running ones
+            while (writers.get() > 0) {
+                Thread.yield();
+            }
+            buffer.force();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.model.RamlMessage;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.RamlResponse;
+import guru.nidi.ramltester.model.Values;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Encodes an exchange into a reusable buffer in the {@link TrafficLogFormat}, one instance per thread.
+ */
+class TrafficLogEncoder extends ByteArrayOutputStream {
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    private final DataOutputStream out = new DataOutputStream(this);
+    private final boolean compress;
+    private Deflater deflater;
+    private byte[] deflated = new byte[0];
+    private int deflatedLength;
+
+    public TrafficLogEncoder(boolean compress) {
+        super(8192);
+        this.compress = compress;
+    }
+
+    public void encode(RamlRequest request, RamlResponse response) throws IOException {
+        reset();
+        deflatedLength = -1;
+        writeString(request.getMethod());
+        writeString(request.getRequestUrl(null, false));
+        final String path = request.getRequestUrl("", false);
+        final String fullPath = request.getRequestUrl("", true);
+        writeString(fullPath.endsWith(path) ? fullPath.substring(0, fullPath.length() - path.length()) : "");
+        writeString(path);
+        writeValues(request.getQueryValues());
+        writeMessage(request);
+        out.writeBoolean(response != null);
+        if (response != null) {
+            out.writeInt(response.getStatus());
+            writeMessage(response);
+        }
+        out.flush();
+        if (compress) {
+            deflate();
+        }
+    }
+
+    private void deflate() {
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        deflater.reset();
+        deflater.setInput(buf, 0, count);
+        deflater.finish();
+        if (deflated.length < count) {
+            deflated = new byte[count];
+        }
+        final int len = deflater.deflate(deflated);
+        //only use the compressed data if it's smaller
+        deflatedLength = deflater.finished() ? len : -1;
+    }
+
+    public byte getFlags() {
+        return deflatedLength < 0 ? 0 : TrafficLogFormat.DEFLATED;
+    }
+
+    public byte[] getData() {
+        return deflatedLength < 0 ? buf : deflated;
+    }
+
+    public int getLength() {
+        return deflatedLength < 0 ? count : deflatedLength;
+    }
+
+    private void writeMessage(RamlMessage message) throws IOException {
+        writeValues(message.getHeaderValues());
+        writeString(message.getContentType());
+        writeData(message.getContent());
+    }
+
+    private void writeValues(Values values) throws IOException {
+        int size = 0;
+        for (final Map.Entry<String, List<Object>> entry : values) {
+            size += entry.getValue().size();
+        }
+        out.writeInt(size);
+        for (final Map.Entry<String, List<Object>> entry : values) {
+            for (final Object value : entry.getValue()) {
+                writeString(entry.getKey());
+                writeString(value == null ? null : value.toString());
+            }
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        writeData(s == null ? null : s.getBytes(UTF_8));
+    }
+
+    private void writeData(byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import guru.nidi.ramltester.model.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The binary format of a {@link TrafficLog}.
+ * A segment file starts with a header and contains records of the form
+ * <code>int length, byte flags, byte[length] data</code>.
+ * The length is written last, so a length of 0 marks the end of the segment.
+ */
+final class TrafficLogFormat {
+    static final int MAGIC = 0x524c4f47;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int RECORD_HEADER_SIZE = 5;
+    static final byte DEFLATED = 1;
+
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+    private static final String SUFFIX = ".rlog";
+    private static final int INDEX_DIGITS = 6;
+
+    private TrafficLogFormat() {
+    }
+
+    static String fileName(String name, int index) {
+        final String digits = Integer.toString(index);
+        final StringBuilder s = new StringBuilder(name).append('-');
+        for (int i = digits.length(); i < INDEX_DIGITS; i++) {
+            s.append('0');
+        }
+        return s.append(digits).append(SUFFIX).toString();
+    }
+
+    static int index(File segment) {
+        final String name = segment.getName();
+        return Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * @return the segment files of the log, oldest first
+     */
+    static List<File> segments(File directory, String name) {
+        final Pattern pattern = Pattern.compile(Pattern.quote(name) + "-\\d+" + Pattern.quote(SUFFIX));
+        final List<File> segments = new ArrayList<>();
+        final File[] files = directory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final Matcher matcher = pattern.matcher(file.getName());
+                if (matcher.matches()) {
+                    segments.add(file);
+                }
+            }
+        }
+        Collections.sort(segments, new Comparator<File>() {
+            @Override
+            public int compare(File f1, File f2) {
+                return index(f1) - index(f2);
+            }
+        });
+        return segments;
+    }
+
+    static RecordedExchange decode(ByteBuffer data, byte flags) throws IOException {
+        final DataInputStream in = new DataInputStream((flags & DEFLATED) == 0
+                ? new ByteArrayInputStream(array(data))
+                : new ByteArrayInputStream(inflate(array(data))));
+        final String method = readString(in);
+        final String url = readString(in);
+        final String servletPath = readString(in);
+        final String path = readString(in);
+        final Values query = readValues(in, new Values());
+        final RecordedRequest request = new RecordedRequest(method, url, servletPath, path, query,
+                readValues(in, new HeaderValuesBuilder()), readString(in), readBytes(in));
+        if (!in.readBoolean()) {
+            return new RecordedExchange(request, null);
+        }
+        final int status = in.readInt();
+        return new RecordedExchange(request, new RecordedResponse(status,
+                readValues(in, new HeaderValuesBuilder()), readString(in), readBytes(in)));
+    }
+
+    private static byte[] array(ByteBuffer data) {
+        final byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            final byte[] buf = new byte[8192];
+            while (!inflater.finished()) {
+                final int len = inflater.inflate(buf);
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new EOFException("Truncated compressed record");
+                }
+                out.write(buf, 0, len);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        final byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final int len = in.readInt();
+        if (len < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[len];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static Values readValues(DataInputStream in, Values values) throws IOException {
+        final int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            values.addValue(readString(in), readString(in));
+        }
+        return values;
+    }
+
+    private static Values readValues(DataInputStream in, HeaderValuesBuilder builder) throws IOException {
+        final int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            builder.add(readString(in), readString(in));
+        }
+        return builder.build();
+    }
+}
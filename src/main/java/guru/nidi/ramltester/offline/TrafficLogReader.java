@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.offline;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the exchanges recorded by a {@link TrafficLog}, oldest first.
+ * Give it to a {@link BatchChecker} to check them.
+ * A segment that is still being written is read up to the last complete exchange.
+ */
+public class TrafficLogReader implements ExchangeReader {
+    private final Iterator<File> segments;
+    private File segment;
+    private ByteBuffer buffer;
+
+    /**
+     * Read all segments of a log.
+     *
+     * @param directory the directory of the log
+     * @param name      the name of the log
+     */
+    public TrafficLogReader(File directory, String name) {
+        this(TrafficLogFormat.segments(directory, name));
+    }
+
+    public TrafficLogReader(File... segments) {
+        this(Arrays.asList(segments));
+    }
+
+    private TrafficLogReader(List<File> segments) {
+        this.segments = segments.iterator();
+    }
+
+    @Override
+    public RecordedExchange read() throws IOException {
+        while (buffer == null || buffer.remaining() < TrafficLogFormat.RECORD_HEADER_SIZE || buffer.getInt(buffer.position()) == 0) {
+            if (!segments.hasNext()) {
+                buffer = null;
+                return null;
+            }
+            open(segments.next());
+        }
+        final int start = buffer.position();
+        final int length = buffer.getInt(start);
+        if (length < 0 || length > buffer.remaining() - TrafficLogFormat.RECORD_HEADER_SIZE) {
+            throw new IOException("Corrupt record at " + start + " in " + segment);
+        }
+        final byte flags = buffer.get(start + 4);
+        buffer.position(start + TrafficLogFormat.RECORD_HEADER_SIZE);
+        final ByteBuffer data = buffer.slice();
+        data.limit(length);
+        buffer.position(buffer.position() + length);
+        return TrafficLogFormat.decode(data, flags);
+    }
+
+    private void open(File file) throws IOException {
+        segment = file;
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (buffer.remaining() < TrafficLogFormat.HEADER_SIZE
+                || buffer.getInt() != TrafficLogFormat.MAGIC || buffer.getInt() != TrafficLogFormat.VERSION) {
+            throw new IOException("Not a traffic log segment: " + file);
+        }
+    }
+
+    @Override
+    public void close() {
+        buffer = null;
+    }
+}
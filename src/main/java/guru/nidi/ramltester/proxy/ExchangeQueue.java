@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.offline.ExchangeReader;
+import guru.nidi.ramltester.offline.RecordedExchange;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The exchanges recorded by the proxy that wait to be checked.
+ * Reading blocks until an exchange arrives and returns null once the queue is closed and empty.
+ */
+class ExchangeQueue implements ExchangeReader {
+    private static final long POLL_MILLIS = 100;
+
+    private final BlockingQueue<RecordedExchange> exchanges;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong tooLarge = new AtomicLong();
+    private volatile boolean closed;
+
+    public ExchangeQueue(int size) {
+        exchanges = new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * Add an exchange or drop it if the queue is full.
+     */
+    public void add(RecordedExchange exchange) {
+        if (!exchanges.offer(exchange)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public void addTooLarge() {
+        tooLarge.incrementAndGet();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getTooLarge() {
+        return tooLarge.get();
+    }
+
+    public boolean isDone() {
+        return closed && exchanges.isEmpty();
+    }
+
+    @Override
+    public RecordedExchange read() throws InterruptedIOException {
+        try {
+            while (true) {
+                final RecordedExchange exchange = exchanges.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (exchange != null || closed) {
+                    return exchange;
+                }
+            }
+        } catch (InterruptedException e) {
+            final InterruptedIOException ex = new InterruptedIOException("Interrupted while waiting for exchanges");
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+
+    /**
+     * No more exchanges are added, the remaining ones can still be read.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+}
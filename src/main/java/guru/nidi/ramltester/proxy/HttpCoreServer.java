@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.util.DaemonThreadFactory;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.HttpException;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.impl.DefaultBHttpServerConnection;
+import org.apache.http.protocol.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * A blocking http server based on httpcore.
+ * Every connection is served by a thread of a bounded pool, connections beyond the limit wait until a thread is free.
+ * While connections are waiting, the served ones are closed when idle or after their current response to give the others a turn.
+ */
+final class HttpCoreServer {
+    private static final Logger log = LoggerFactory.getLogger(HttpCoreServer.class);
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int IDLE_MILLIS = 30 * 1000;
+    private static final int POLL_MILLIS = 100;
+    private static final int KEEP_ALIVE_SECONDS = 60;
+
+    private final ServerSocket serverSocket;
+    private final HttpService service;
+    private final ThreadPoolExecutor workers;
+    private final Set<Connection> connections =
+            Collections.newSetFromMap(new ConcurrentHashMap<Connection, Boolean>());
+
+    /**
+     * Start a server.
+     *
+     * @param name           the name of the server threads
+     * @param port           the port to listen on, 0 for any free port
+     * @param maxConnections the maximum number of concurrently served connections, further connections are queued
+     * @param handler        handles all requests
+     * @throws IOException if the port cannot be opened
+     */
+    HttpCoreServer(String name, int port, int maxConnections, HttpRequestHandler handler) throws IOException {
+        serverSocket = new ServerSocket(port);
+        final UriHttpRequestHandlerMapper mapper = new UriHttpRequestHandlerMapper();
+        mapper.register("*", handler);
+        service = new HttpService(HttpProcessorBuilder.create()
+                .add(new ResponseDate()).add(new ResponseServer(name)).add(new ResponseContent(true)).add(new CloseWhenBusy()).add(new ResponseConnControl())
+                .build(), mapper);
+        workers = new ThreadPoolExecutor(maxConnections, maxConnections, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new DaemonThreadFactory(name));
+        workers.allowCoreThreadTimeOut(true);
+        final Thread listener = new DaemonThreadFactory(name + "-listener").newThread(new Listener());
+        listener.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stop accepting connections and close the open ones.
+     *
+     * @param timeout the time to wait for the running requests to stop
+     * @param unit    the unit of the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.debug("Could not close server socket", e);
+        }
+        workers.shutdown();
+        for (final Connection connection : connections) {
+            shutdown(connection);
+        }
+        workers.awaitTermination(timeout, unit);
+    }
+
+    private void shutdown(Connection connection) {
+        connections.remove(connection);
+        try {
+            connection.shutdown();
+        } catch (IOException e) {
+            log.debug("Could not close connection", e);
+        }
+    }
+
+    private class Listener implements Runnable {
+        @Override
+        public void run() {
+            try {
+                while (!serverSocket.isClosed()) {
+                    serve(serverSocket.accept());
+                }
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    log.error("Stopped accepting connections", e);
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            final Connection connection = new Connection();
+            try {
+                socket.setSoTimeout(IDLE_MILLIS);
+                connection.bind(socket);
+            } catch (IOException e) {
+                log.debug("Could not open connection: {}", e.toString());
+                try {
+                    socket.close();
+                } catch (IOException ce) {
+                    log.debug("Could not close socket", ce);
+                }
+                return;
+            }
+            connections.add(connection);
+            try {
+                workers.execute(new Worker(connection));
+            } catch (RejectedExecutionException e) {
+                //the server is closing
+                shutdown(connection);
+            }
+        }
+    }
+
+    private class CloseWhenBusy implements HttpResponseInterceptor {
+        @Override
+        public void process(HttpResponse response, HttpContext context) {
+            if (!workers.getQueue().isEmpty()) {
+                response.setHeader(HTTP.CONN_DIRECTIVE, HTTP.CONN_CLOSE);
+            }
+        }
+    }
+
+    private static final class Connection extends DefaultBHttpServerConnection {
+        public Connection() {
+            super(BUFFER_SIZE);
+        }
+
+        public boolean awaitRequest(int timeout) throws IOException {
+            ensureOpen();
+            return awaitInput(timeout);
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final Connection connection;
+
+        public Worker(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void run() {
+            final HttpContext context = new BasicHttpContext();
+            try {
+                while (connection.isOpen() && awaitRequest()) {
+                    service.handleRequest(connection, context);
+                }
+            } catch (ConnectionClosedException | SocketTimeoutException e) {
+                //the client closed the connection or was idle for too long
+            } catch (IOException | HttpException e) {
+                if (connection.isOpen()) {
+                    log.debug("Problem serving connection: {}", e.toString());
+                }
+            } finally {
+                shutdown(connection);
+            }
+        }
+
+        /**
+         * An idle connection gives up its thread as soon as other connections are waiting.
+         *
+         * @return if a request has arrived
+         */
+        private boolean awaitRequest() throws IOException {
+            for (int waited = 0; waited < IDLE_MILLIS && workers.getQueue().isEmpty(); waited += POLL_MILLIS) {
+                try {
+                    return connection.awaitRequest(POLL_MILLIS);
+                } catch (SocketTimeoutException e) {
+                    //nothing arrived yet
+                }
+            }
+            return false;
+        }
+    }
+}
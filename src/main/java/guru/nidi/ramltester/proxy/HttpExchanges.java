@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
+import guru.nidi.ramltester.offline.RecordedRequest;
+import guru.nidi.ramltester.util.UriComponents;
+import org.apache.http.Header;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpRequest;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+/**
+ *
+ */
+final class HttpExchanges {
+    private HttpExchanges() {
+    }
+
+    static byte[] readBody(HttpRequest request) throws IOException {
+        return request instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) request).getEntity() != null
+                ? EntityUtils.toByteArray(((HttpEntityEnclosingRequest) request).getEntity())
+                : new byte[0];
+    }
+
+    /**
+     * @param request the request
+     * @return the raw path of the request
+     */
+    static String path(HttpRequest request) {
+        final String uri = request.getRequestLine().getUri();
+        final int pos = uri.indexOf('?');
+        return pos < 0 ? uri : uri.substring(0, pos);
+    }
+
+    /**
+     * @param request the request
+     * @return the raw query of the request or null if there is none
+     */
+    static String query(HttpRequest request) {
+        final String uri = request.getRequestLine().getUri();
+        final int pos = uri.indexOf('?');
+        return pos < 0 ? null : uri.substring(pos + 1);
+    }
+
+    /**
+     * @param request     the request
+     * @param servletPath the part of the path that belongs to the base URI
+     * @param path        the rest of the path
+     * @param body        the request body
+     * @return the recorded request
+     */
+    static RecordedRequest request(HttpRequest request, String servletPath, String path, byte[] body) {
+        final HeaderValuesBuilder headers = new HeaderValuesBuilder();
+        for (final Header header : request.getAllHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        return new RecordedRequest(request.getRequestLine().getMethod(),
+                "http://" + headerValue(request, "Host", "localhost") + servletPath + path,
+                servletPath, path, UriComponents.parseQuery(query(request)),
+                headers.build(), headerValue(request, "Content-Type", null), body.length == 0 ? null : body);
+    }
+
+    private static String headerValue(HttpRequest request, String name, String defaultValue) {
+        final Header header = request.getFirstHeader(name);
+        return header == null ? defaultValue : header.getValue();
+    }
+}
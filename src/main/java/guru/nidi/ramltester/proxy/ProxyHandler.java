@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
+import guru.nidi.ramltester.offline.RecordedExchange;
+import guru.nidi.ramltester.offline.RecordedRequest;
+import guru.nidi.ramltester.offline.RecordedResponse;
+import guru.nidi.ramltester.util.SavingInputStream;
+import org.apache.http.*;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Forwards a request to the upstream server, streams the response back
+ * and puts the exchange into the queue once the response is sent.
+ */
+class ProxyHandler implements HttpRequestHandler {
+    private static final Logger log = LoggerFactory.getLogger(ProxyHandler.class);
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final Set<String> NOT_FORWARDED = new HashSet<>(Arrays.asList(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade",
+            "host", "content-length"));
+
+    private final CloseableHttpClient client;
+    private final String target;
+    private final ExchangeQueue exchanges;
+    private volatile int maxCapture;
+
+    public ProxyHandler(CloseableHttpClient client, String target, ExchangeQueue exchanges, int maxCapture) {
+        this.client = client;
+        this.target = target;
+        this.exchanges = exchanges;
+        this.maxCapture = maxCapture;
+    }
+
+    public void setMaxCapture(int maxCapture) {
+        this.maxCapture = maxCapture;
+    }
+
+    @Override
+    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws IOException {
+        final String method = request.getRequestLine().getMethod();
+        final String path = HttpExchanges.path(request);
+        final SavingInputStream requestBody = requestBody(request);
+        final CloseableHttpResponse upstream;
+        try {
+            upstream = client.execute(upstreamRequest(request, path, requestBody));
+        } catch (IOException e) {
+            log.warn("Could not forward {} {}: {}", method, request.getRequestLine().getUri(), e.toString());
+            response.setStatusCode(HttpURLConnection.HTTP_BAD_GATEWAY);
+            return;
+        }
+        final int status = upstream.getStatusLine().getStatusCode();
+        final Exchange exchange = new Exchange(request, path, requestBody, status);
+        response.setStatusCode(status);
+        response.setReasonPhrase(upstream.getStatusLine().getReasonPhrase());
+        for (final Header header : upstream.getAllHeaders()) {
+            exchange.addResponseHeader(header);
+            if (isForwarded(header)) {
+                response.addHeader(header.getName(), header.getValue());
+            }
+        }
+        if (upstream.getEntity() == null || !canHaveBody(method, status)) {
+            upstream.close();
+            exchange.completed(new byte[0], false);
+        } else {
+            response.setEntity(new ForwardedEntity(upstream, exchange));
+        }
+    }
+
+    private SavingInputStream requestBody(HttpRequest request) throws IOException {
+        if (request instanceof HttpEntityEnclosingRequest && ((HttpEntityEnclosingRequest) request).getEntity() != null) {
+            return new SavingInputStream(((HttpEntityEnclosingRequest) request).getEntity().getContent(), maxCapture);
+        }
+        return null;
+    }
+
+    private HttpUriRequest upstreamRequest(HttpRequest request, String path, SavingInputStream requestBody) {
+        final String query = HttpExchanges.query(request);
+        final RequestBuilder builder = RequestBuilder.create(request.getRequestLine().getMethod())
+                .setUri(target + path + (query == null ? "" : "?" + query));
+        for (final Header header : request.getAllHeaders()) {
+            if (isForwarded(header)) {
+                builder.addHeader(header.getName(), header.getValue());
+            }
+        }
+        if (requestBody != null) {
+            builder.setEntity(new InputStreamEntity(requestBody, ((HttpEntityEnclosingRequest) request).getEntity().getContentLength()));
+        }
+        return builder.build();
+    }
+
+    private boolean isForwarded(Header header) {
+        return !NOT_FORWARDED.contains(header.getName().toLowerCase(Locale.ENGLISH));
+    }
+
+    private boolean canHaveBody(String method, int status) {
+        return !"HEAD".equals(method) && status >= HttpStatus.SC_OK
+                && status != HttpStatus.SC_NO_CONTENT && status != HttpStatus.SC_NOT_MODIFIED;
+    }
+
+    private class Exchange {
+        private final HttpRequest request;
+        private final String path;
+        private final SavingInputStream requestBody;
+        private final int status;
+        private final HeaderValuesBuilder responseHeaders = new HeaderValuesBuilder();
+
+        public Exchange(HttpRequest request, String path, SavingInputStream requestBody, int status) {
+            this.request = request;
+            this.path = path;
+            this.requestBody = requestBody;
+            this.status = status;
+        }
+
+        public void addResponseHeader(Header header) {
+            responseHeaders.add(header.getName(), header.getValue());
+        }
+
+        public void completed(byte[] responseBody, boolean truncated) {
+            if (truncated || (requestBody != null && requestBody.isTruncated())) {
+                exchanges.addTooLarge();
+                return;
+            }
+            final RecordedRequest recordedRequest = HttpExchanges.request(request, "", path,
+                    requestBody == null ? new byte[0] : requestBody.getSaved());
+            final RecordedResponse recordedResponse = new RecordedResponse(status, responseHeaders.build(), responseBody);
+            exchanges.add(new RecordedExchange(recordedRequest, recordedResponse));
+        }
+    }
+
+    /**
+     * Streams the upstream response to the client and saves it for the check.
+     */
+    private class ForwardedEntity extends AbstractHttpEntity {
+        private final CloseableHttpResponse upstream;
+        private final Exchange exchange;
+
+        public ForwardedEntity(CloseableHttpResponse upstream, Exchange exchange) {
+            this.upstream = upstream;
+            this.exchange = exchange;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public long getContentLength() {
+            return upstream.getEntity().getContentLength();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return upstream.getEntity().getContent();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            final SavingInputStream body = new SavingInputStream(upstream.getEntity().getContent(), maxCapture);
+            try (final InputStream in = body) {
+                final byte[] buf = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buf)) >= 0) {
+                    out.write(buf, 0, read);
+                }
+            } finally {
+                upstream.close();
+            }
+            exchange.completed(body.getSaved(), body.isTruncated());
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return true;
+        }
+    }
+}
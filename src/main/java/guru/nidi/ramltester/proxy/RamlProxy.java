@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.core.ReportAggregator;
+import guru.nidi.ramltester.core.Usage;
+import guru.nidi.ramltester.offline.BatchChecker;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A reverse proxy that forwards all requests to an upstream server and checks the exchanges against a raml.
+ * The bodies are streamed through the proxy and captured up to a limit, see {@link #capturingAtMost(int)}.
+ * The checks run on a separate thread, so they add no latency to the proxied requests.
+ * If the checks cannot keep up, exchanges are dropped instead of slowing down the traffic, see {@link #getDropped()}.
+ * The reports are given to the aggregator one at a time while holding its lock,
+ * so synchronize on the aggregator when reading its usage while the proxy is running.
+ */
+public final class RamlProxy implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(RamlProxy.class);
+    private static final int QUEUE_SIZE = 1024;
+    private static final int MAX_CONNECTIONS = 200;
+    private static final int STOP_SECONDS = 10;
+    private static final int DEFAULT_MAX_CAPTURE = 1024 * 1024;
+
+    private final HttpCoreServer server;
+    private final CloseableHttpClient client;
+    private final ExchangeQueue exchanges = new ExchangeQueue(QUEUE_SIZE);
+    private final ProxyHandler handler;
+    private final CountingAggregator aggregator;
+    private final Thread checkThread;
+
+    /**
+     * Start a proxy.
+     * It serves at most 200 connections at the same time, further connections are closed immediately.
+     *
+     * @param config     the config to check against
+     * @param port       the port to listen on, 0 for any free port
+     * @param target     the URL of the upstream server, like <code>http://localhost:8080</code>
+     * @param aggregator receives the reports
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlProxy(CheckerConfig config, int port, String target, ReportAggregator aggregator) throws IOException {
+        this.aggregator = new CountingAggregator(aggregator);
+        client = HttpClients.custom()
+                .setMaxConnTotal(MAX_CONNECTIONS).setMaxConnPerRoute(MAX_CONNECTIONS)
+                .disableRedirectHandling().disableContentCompression().disableCookieManagement().disableAutomaticRetries()
+                .build();
+        handler = new ProxyHandler(client, target.endsWith("/") ? target.substring(0, target.length() - 1) : target,
+                exchanges, DEFAULT_MAX_CAPTURE);
+        try {
+            server = new HttpCoreServer("raml-proxy", port, MAX_CONNECTIONS, handler);
+        } catch (IOException | RuntimeException e) {
+            client.close();
+            throw e;
+        }
+        final BatchChecker checker = new BatchChecker(config).aggregating(this.aggregator);
+        checkThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                //a failing check must not stop checking the following exchanges
+                while (!exchanges.isDone()) {
+                    try {
+                        checker.check(exchanges);
+                    } catch (InterruptedException e) {
+                        log.error("Checking stopped", e);
+                        return;
+                    } catch (IOException | RuntimeException e) {
+                        log.error("Problem checking exchanges, continuing", e);
+                    }
+                }
+            }
+        }, "raml-proxy-checker");
+        checkThread.setDaemon(true);
+        checkThread.start();
+    }
+
+    /**
+     * Limit the size of the request and response bodies that are saved for checking.
+     * Exchanges with larger bodies are forwarded but not checked, see {@link #getTooLarge()}.
+     * The default is 1 MB.
+     *
+     * @param maxBytes the maximum size of a body
+     * @return this
+     */
+    public RamlProxy capturingAtMost(int maxBytes) {
+        handler.setMaxCapture(maxBytes);
+        return this;
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    /**
+     * @return the number of checked exchanges
+     */
+    public long getChecked() {
+        return aggregator.checked.get();
+    }
+
+    /**
+     * @return the number of checked exchanges with violations
+     */
+    public long getViolations() {
+        return aggregator.violations.get();
+    }
+
+    /**
+     * @return the number of exchanges that were not checked because the checks could not keep up
+     */
+    public long getDropped() {
+        return exchanges.getDropped();
+    }
+
+    /**
+     * @return the number of exchanges that were not checked because a body was larger than the capture limit
+     */
+    public long getTooLarge() {
+        return exchanges.getTooLarge();
+    }
+
+    /**
+     * Stop the proxy and wait until all pending exchanges are checked.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            server.close(STOP_SECONDS, TimeUnit.SECONDS);
+            exchanges.close();
+            checkThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        client.close();
+    }
+
+    private static class CountingAggregator implements ReportAggregator {
+        private final ReportAggregator delegate;
+        private final AtomicLong checked = new AtomicLong();
+        private final AtomicLong violations = new AtomicLong();
+
+        public CountingAggregator(ReportAggregator delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RamlReport addReport(RamlReport report) {
+            checked.incrementAndGet();
+            if (!report.isEmpty()) {
+                violations.incrementAndGet();
+            }
+            synchronized (delegate) {
+                return delegate.addReport(report);
+            }
+        }
+
+        @Override
+        public Iterable<Map.Entry<String, Usage>> usages() {
+            return delegate.usages();
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.core.ReportAggregator;
+import guru.nidi.ramltester.util.UriComponents;
+import org.raml.model.Action;
+import org.raml.model.ActionType;
+import org.raml.model.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A server that answers every action of a raml with the example of its first successful response.
+ * The resource tree is compiled into a routing index and the responses are encoded when the server starts.
+ * The paths are relative to the path of the base URI.
+ * If an aggregator is given, the requests are checked and the reports are added to the aggregator.
+ * To check requests with a host different from the raml's baseUri, use {@link CheckerConfig#assumingBaseUri(String)}.
+ */
+public class RamlStubServer implements Closeable {
+    public static final int DEFAULT_MAX_CONNECTIONS = 50;
+    private static final int STOP_SECONDS = 10;
+
+    private final StubRoute root = new StubRoute();
+    private final HttpCoreServer server;
+
+    /**
+     * Start a stub server.
+     *
+     * @param config     the config containing the raml
+     * @param port       the port to listen on, 0 for any free port
+     * @param aggregator receives the reports of the checked requests, null to not check the requests
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlStubServer(CheckerConfig config, int port, ReportAggregator aggregator) throws IOException {
+        this(config, port, aggregator, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * Start a stub server.
+     *
+     * @param config         the config containing the raml
+     * @param port           the port to listen on, 0 for any free port
+     * @param aggregator     receives the reports of the checked requests, null to not check the requests
+     * @param maxConnections the maximum number of concurrently served connections, further connections wait
+     * @throws IOException if the port cannot be opened
+     */
+    public RamlStubServer(CheckerConfig config, int port, ReportAggregator aggregator, int maxConnections) throws IOException {
+        final List<Pattern> basePath = new ArrayList<>();
+        final String baseUri = config.baseUri == null ? config.raml.getBaseUri() : config.baseUri;
+        if (baseUri != null) {
+            for (final String segment : UriComponents.pathSegments(UriComponents.fromHttpUrl(baseUri).getPath())) {
+                basePath.add(StubRoute.segmentPattern(segment));
+            }
+        }
+        for (final Resource resource : config.raml.getResources().values()) {
+            addResource(resource);
+        }
+        server = new HttpCoreServer("raml-stub", port, maxConnections, new StubHandler(root, basePath, config, aggregator));
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close(STOP_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void addResource(Resource resource) {
+        StubRoute route = root;
+        for (final String segment : UriComponents.pathSegments(resource.getUri())) {
+            route = route.child(segment);
+        }
+        for (final Map.Entry<ActionType, Action> action : resource.getActions().entrySet()) {
+            route.addStub(action.getKey().name(), new Stub(action.getValue()));
+        }
+        for (final Resource child : resource.getResources().values()) {
+            addResource(child);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ByteArrayEntity;
+import org.raml.model.Action;
+import org.raml.model.MimeType;
+import org.raml.model.Response;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The response of an action, encoded once when the {@link RamlStubServer} starts.
+ */
+class Stub {
+    private static final Charset UTF_8 = Charset.forName("utf-8");
+
+    private final int status;
+    private final String contentType;
+    private final byte[] body;
+
+    public Stub(Action action) {
+        final String code = bestCode(action);
+        final Map.Entry<String, MimeType> example = code == null ? null : example(action.getResponses().get(code));
+        status = code == null ? HttpURLConnection.HTTP_OK : Integer.parseInt(code);
+        contentType = example == null ? null : example.getKey();
+        body = example == null ? new byte[0] : example.getValue().getExample().getBytes(UTF_8);
+    }
+
+    public void respond(HttpResponse response) {
+        response.setStatusCode(status);
+        if (contentType != null) {
+            response.setHeader("Content-Type", contentType);
+        }
+        if (body.length > 0) {
+            response.setEntity(new ByteArrayEntity(body));
+        }
+    }
+
+    /**
+     * Take the example of the first successful response or the first response with an example.
+     */
+    private static String bestCode(Action action) {
+        final List<String> codes = new ArrayList<>(action.getResponses().keySet());
+        Collections.sort(codes);
+        String best = null;
+        int bestScore = -1;
+        for (final String code : codes) {
+            final int score = (code.startsWith("2") ? 2 : 0) + (example(action.getResponses().get(code)) == null ? 0 : 1);
+            if (score > bestScore) {
+                bestScore = score;
+                best = code;
+            }
+        }
+        return best;
+    }
+
+    private static Map.Entry<String, MimeType> example(Response response) {
+        if (response != null && response.getBody() != null) {
+            for (final Map.Entry<String, MimeType> mimeType : response.getBody().entrySet()) {
+                if (mimeType.getValue().getExample() != null) {
+                    return mimeType;
+                }
+            }
+        }
+        return null;
+    }
+}
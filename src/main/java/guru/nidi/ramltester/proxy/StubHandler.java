@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.util.UriComponents;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestHandler;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Answers a request with the stub of its route and checks it if there is an aggregator.
+ */
+class StubHandler implements HttpRequestHandler {
+    private final StubRoute root;
+    private final List<Pattern> basePath;
+    private final ReportAggregator aggregator;
+    private final ThreadLocal<RamlChecker> checkers;
+
+    public StubHandler(StubRoute root, List<Pattern> basePath, final CheckerConfig config, ReportAggregator aggregator) {
+        this.root = root;
+        this.basePath = basePath;
+        this.aggregator = aggregator;
+        checkers = new ThreadLocal<RamlChecker>() {
+            @Override
+            protected RamlChecker initialValue() {
+                return new RamlChecker(config);
+            }
+        };
+    }
+
+    @Override
+    public void handle(HttpRequest request, HttpResponse response, HttpContext context) throws IOException {
+        final String path = HttpExchanges.path(request);
+        final List<String> segments = UriComponents.pathSegments(path);
+        final int base = baseLength(segments);
+        final StubRoute route = base < 0 ? null : root.find(segments, base);
+        if (aggregator != null) {
+            check(request, path, segments, Math.max(base, 0));
+        }
+        if (route == null) {
+            response.setStatusCode(HttpURLConnection.HTTP_NOT_FOUND);
+            return;
+        }
+        final Stub stub = route.getStub(request.getRequestLine().getMethod());
+        if (stub == null) {
+            response.setStatusCode(HttpURLConnection.HTTP_BAD_METHOD);
+            response.setHeader("Allow", route.getAllow());
+            return;
+        }
+        stub.respond(response);
+    }
+
+    private int baseLength(List<String> segments) {
+        if (segments.size() < basePath.size()) {
+            return -1;
+        }
+        for (int i = 0; i < basePath.size(); i++) {
+            if (!basePath.get(i).matcher(segments.get(i)).matches()) {
+                return -1;
+            }
+        }
+        return basePath.size();
+    }
+
+    private void check(HttpRequest httpRequest, String path, List<String> segments, int base) throws IOException {
+        final StringBuilder servletPath = new StringBuilder();
+        for (int i = 0; i < base; i++) {
+            servletPath.append('/').append(segments.get(i));
+        }
+        final String rest = path.startsWith(servletPath.toString()) ? path.substring(servletPath.length()) : path;
+        final RamlRequest request = HttpExchanges.request(httpRequest, servletPath.toString(), rest, HttpExchanges.readBody(httpRequest));
+        RamlReport report;
+        try {
+            report = checkers.get().check(request);
+        } catch (RamlViolationException e) {
+            report = e.getReport();
+        }
+        synchronized (aggregator) {
+            aggregator.addReport(report);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.proxy;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * A path segment in the routing index of the {@link RamlStubServer} with the stubs of its actions.
+ */
+class StubRoute {
+    private final Map<String, StubRoute> literals = new HashMap<>();
+    private final Map<Pattern, StubRoute> templates = new LinkedHashMap<>();
+    private final Map<String, Stub> stubs = new TreeMap<>();
+    private String allow;
+
+    public StubRoute child(String segment) {
+        StubRoute child;
+        if (segment.indexOf('{') < 0) {
+            child = literals.get(segment);
+            if (child == null) {
+                child = new StubRoute();
+                literals.put(segment, child);
+            }
+        } else {
+            final Pattern pattern = segmentPattern(segment);
+            child = null;
+            for (final Map.Entry<Pattern, StubRoute> template : templates.entrySet()) {
+                if (template.getKey().pattern().equals(pattern.pattern())) {
+                    child = template.getValue();
+                }
+            }
+            if (child == null) {
+                child = new StubRoute();
+                templates.put(pattern, child);
+            }
+        }
+        return child;
+    }
+
+    public void addStub(String method, Stub stub) {
+        stubs.put(method, stub);
+        allow = join(stubs.keySet());
+    }
+
+    public Stub getStub(String method) {
+        return stubs.get(method);
+    }
+
+    /**
+     * @return the methods of this route as used in the <code>Allow</code> header.
+     */
+    public String getAllow() {
+        return allow;
+    }
+
+    /**
+     * @return the route of the path, literal segments are preferred over variables.
+     */
+    public StubRoute find(List<String> segments, int pos) {
+        if (pos == segments.size()) {
+            return stubs.isEmpty() ? null : this;
+        }
+        final StubRoute literal = literals.get(segments.get(pos));
+        if (literal != null) {
+            final StubRoute found = literal.find(segments, pos + 1);
+            if (found != null) {
+                return found;
+            }
+        }
+        for (final Map.Entry<Pattern, StubRoute> template : templates.entrySet()) {
+            if (template.getKey().matcher(segments.get(pos)).matches()) {
+                final StubRoute found = template.getValue().find(segments, pos + 1);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return a pattern where each variable matches any string.
+     */
+    static Pattern segmentPattern(String segment) {
+        final String[] literals = segment.split("\\{[^}]*}", -1);
+        final StringBuilder regex = new StringBuilder(Pattern.quote(literals[0]));
+        for (int i = 1; i < literals.length; i++) {
+            regex.append(".*?").append(Pattern.quote(literals[i]));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static String join(Collection<String> methods) {
+        final StringBuilder s = new StringBuilder();
+        for (final String method : methods) {
+            s.append(s.length() == 0 ? "" : ", ").append(method);
+        }
+        return s.toString();
+    }
+}
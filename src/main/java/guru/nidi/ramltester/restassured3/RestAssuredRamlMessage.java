@@ -15,6 +15,7 @@
  */
 package guru.nidi.ramltester.restassured3;
 
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.Values;
 import io.restassured.http.Header;
 import io.restassured.http.Headers;
@@ -26,11 +27,11 @@ import java.util.Map.Entry;
 class RestAssuredRamlMessage {
 
     protected Values headersToValues(Headers headers) {
-        final Values headerValues = new Values();
+        final HeaderValuesBuilder headerValues = new HeaderValuesBuilder();
         for (final Header header : headers) {
-            headerValues.addValue(header.getName(), header.getValue());
+            headerValues.add(header.getName(), header.getValue());
         }
-        return headerValues;
+        return headerValues.build();
     }
 
     protected Values mapToValues(Map<String, ?> map) {
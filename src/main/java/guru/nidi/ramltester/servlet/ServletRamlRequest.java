@@ -16,6 +16,7 @@
 package guru.nidi.ramltester.servlet;
 
 import guru.nidi.ramltester.core.RamlCheckerException;
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.RamlRequest;
 import guru.nidi.ramltester.model.Values;
 import guru.nidi.ramltester.util.FormDecoder;
@@ -70,16 +71,16 @@ public class ServletRamlRequest extends HttpServletRequestWrapper implements Ram
     }
 
     public static Values getHeaderValues(HttpServletRequest request) {
-        final Values headers = new Values();
+        final HeaderValuesBuilder headers = new HeaderValuesBuilder();
         final Enumeration<String> names = request.getHeaderNames();
         while (names.hasMoreElements()) {
             final String name = names.nextElement();
             final Enumeration<String> values = request.getHeaders(name);
             while (values.hasMoreElements()) {
-                headers.addValue(name, values.nextElement());
+                headers.add(name, values.nextElement());
             }
         }
-        return headers;
+        return headers.build();
     }
 
     @Override
@@ -102,7 +103,7 @@ public class ServletRamlRequest extends HttpServletRequestWrapper implements Ram
     public byte[] getContent() {
         try {
             readContentIfNeeded();
-            return IoUtils.readIntoByteArray(getInputStream());
+            return content.clone();
         } catch (IOException e) {
             throw new RamlCheckerException("Could not read content", e);
         }
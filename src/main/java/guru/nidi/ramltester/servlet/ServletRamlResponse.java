@@ -16,6 +16,7 @@
 package guru.nidi.ramltester.servlet;
 
 import guru.nidi.ramltester.core.RamlCheckerException;
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.RamlResponse;
 import guru.nidi.ramltester.model.Values;
 import guru.nidi.ramltester.util.IoUtils;
@@ -42,6 +43,7 @@ public class ServletRamlResponse extends HttpServletResponseWrapper implements R
 
     private int status = HttpServletResponse.SC_OK;
     private final Values headers = new Values();
+    private Values headerValues;
 
     public ServletRamlResponse(HttpServletResponse delegate) {
         super(delegate);
@@ -62,36 +64,42 @@ public class ServletRamlResponse extends HttpServletResponseWrapper implements R
     @Override
     public void setHeader(String name, String value) {
         headers.setValue(name, value);
+        headerValues = null;
         super.setHeader(name, value);
     }
 
     @Override
     public void addHeader(String name, String value) {
         headers.addValue(name, value);
+        headerValues = null;
         super.addHeader(name, value);
     }
 
     @Override
     public void setIntHeader(String name, int value) {
         headers.setValue(name, Integer.toString(value));
+        headerValues = null;
         super.setIntHeader(name, value);
     }
 
     @Override
     public void addIntHeader(String name, int value) {
         headers.addValue(name, Integer.toString(value));
+        headerValues = null;
         super.addIntHeader(name, value);
     }
 
     @Override
     public void setDateHeader(String name, long date) {
         headers.setValue(name, dateToString(date));
+        headerValues = null;
         super.setDateHeader(name, date);
     }
 
     @Override
     public void addDateHeader(String name, long date) {
         headers.addValue(name, dateToString(date));
+        headerValues = null;
         super.addDateHeader(name, date);
     }
 
@@ -148,6 +156,9 @@ public class ServletRamlResponse extends HttpServletResponseWrapper implements R
 
     @Override
     public Values getHeaderValues() {
-        return headers;
+        if (headerValues == null) {
+            headerValues = new HeaderValuesBuilder().addAll(headers).build();
+        }
+        return headerValues;
     }
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.spring;
+
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.util.DaemonThreadFactory;
+import guru.nidi.ramltester.util.SavingOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AsyncClientHttpRequest;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+import org.springframework.web.client.AsyncRestTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.*;
+import java.net.URI;
+import java.util.concurrent.*;
+
+/**
+ * An {@link AsyncRestTemplate} that checks all exchanges.
+ * The checks run on a bounded thread pool, never on the threads of the request factory.
+ * If the pool is saturated, the exchange is not checked, so checking never slows down the requests.
+ * The bodies are captured up to a limit, see {@link #capturingAtMost(int)}.
+ * The futures complete after the check.
+ */
+public class RamlAsyncRestTemplate extends AsyncRestTemplate {
+    private static final Logger log = LoggerFactory.getLogger(RamlAsyncRestTemplate.class);
+    private static final int QUEUE_SIZE = 1024;
+    private static final int KEEP_ALIVE_SECONDS = 10;
+    private static final int DEFAULT_MAX_CAPTURE = 1024 * 1024;
+
+    private final ThreadLocal<RamlChecker> checkers;
+    private final ReportStore reportStore;
+    private final ThreadPoolExecutor executor;
+    private final AsyncClientHttpRequestFactory originalRequestFactory;
+    private final RestTemplate restTemplate;
+    private final int maxCapture;
+
+    private RamlAsyncRestTemplate(ThreadLocal<RamlChecker> checkers, ReportStore reportStore, ThreadPoolExecutor executor,
+                                  AsyncClientHttpRequestFactory requestFactory, RestTemplate restTemplate, int maxCapture) {
+        super(new CheckingRequestFactory(requestFactory, checkers, reportStore, executor, maxCapture), restTemplate);
+        this.checkers = checkers;
+        this.reportStore = reportStore;
+        this.executor = executor;
+        this.originalRequestFactory = requestFactory;
+        this.restTemplate = restTemplate;
+        this.maxCapture = maxCapture;
+    }
+
+    public RamlAsyncRestTemplate(final CheckerConfig config, AsyncClientHttpRequestFactory requestFactory) {
+        this(new ThreadLocal<RamlChecker>() {
+            @Override
+            protected RamlChecker initialValue() {
+                return new RamlChecker(config);
+            }
+        }, new SharedReportStore(), checkExecutor(), requestFactory, new RestTemplate(), DEFAULT_MAX_CAPTURE);
+    }
+
+    private static ThreadPoolExecutor checkExecutor() {
+        final int threads = Runtime.getRuntime().availableProcessors();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(QUEUE_SIZE), new DaemonThreadFactory("raml-async-checker"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public RamlAsyncRestTemplate aggregating(ReportAggregator aggregator) {
+        return new RamlAsyncRestTemplate(checkers, new AggregatingReportStore(reportStore, aggregator), executor,
+                originalRequestFactory, restTemplate, maxCapture);
+    }
+
+    /**
+     * Limit the size of the request and response bodies that are captured for checking, the default is 1 MB.
+     * Exchanges with larger bodies are not checked.
+     *
+     * @param maxBytes the maximum size of a body
+     * @return the new template
+     */
+    public RamlAsyncRestTemplate capturingAtMost(int maxBytes) {
+        return new RamlAsyncRestTemplate(checkers, reportStore, executor, originalRequestFactory, restTemplate, maxBytes);
+    }
+
+    /**
+     * @return the report of the exchange that was checked last
+     */
+    public RamlReport getLastReport() {
+        return reportStore.getLastReport();
+    }
+
+    private static class CheckingRequestFactory implements AsyncClientHttpRequestFactory {
+        private final AsyncClientHttpRequestFactory delegate;
+        private final ThreadLocal<RamlChecker> checkers;
+        private final ReportStore reportStore;
+        private final Executor executor;
+        private final int maxCapture;
+
+        public CheckingRequestFactory(AsyncClientHttpRequestFactory delegate, ThreadLocal<RamlChecker> checkers,
+                                      ReportStore reportStore, Executor executor, int maxCapture) {
+            this.delegate = delegate;
+            this.checkers = checkers;
+            this.reportStore = reportStore;
+            this.executor = executor;
+            this.maxCapture = maxCapture;
+        }
+
+        @Override
+        public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) throws IOException {
+            return new CheckingRequest(delegate.createAsyncRequest(uri, httpMethod));
+        }
+
+        private class CheckingRequest implements AsyncClientHttpRequest {
+            private final AsyncClientHttpRequest request;
+            private SavingOutputStream body;
+
+            public CheckingRequest(AsyncClientHttpRequest request) {
+                this.request = request;
+            }
+
+            @Override
+            public ListenableFuture<ClientHttpResponse> executeAsync() throws IOException {
+                final byte[] content = body == null ? new byte[0] : body.getSaved();
+                final boolean truncated = body != null && body.isTruncated();
+                final SettableListenableFuture<ClientHttpResponse> result = new SettableListenableFuture<>();
+                request.executeAsync().addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+                    @Override
+                    public void onSuccess(final ClientHttpResponse response) {
+                        if (truncated) {
+                            log.debug("Request body larger than {} bytes, not checking {} {}", maxCapture, getMethod(), getURI());
+                            result.set(response);
+                            return;
+                        }
+                        try {
+                            executor.execute(new Runnable() {
+                                @Override
+                                public void run() {
+                                    check(content, response, result);
+                                }
+                            });
+                        } catch (RejectedExecutionException e) {
+                            log.debug("Too many pending checks, not checking {} {}", getMethod(), getURI());
+                            result.set(response);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Throwable ex) {
+                        result.setException(ex);
+                    }
+                });
+                return result;
+            }
+
+            private void check(byte[] content, ClientHttpResponse response, SettableListenableFuture<ClientHttpResponse> result) {
+                final BufferedResponse buffered;
+                try {
+                    buffered = new BufferedResponse(response, maxCapture);
+                } catch (IOException e) {
+                    response.close();
+                    result.setException(e);
+                    return;
+                }
+                if (!buffered.isComplete()) {
+                    log.debug("Response body larger than {} bytes, not checking {} {}", maxCapture, getMethod(), getURI());
+                    result.set(buffered);
+                    return;
+                }
+                final SpringHttpRamlRequest ramlRequest = new SpringHttpRamlRequest(this, content);
+                try {
+                    final RamlReport report = checkers.get().check(ramlRequest, new SpringClientHttpRamlResponse(buffered));
+                    synchronized (reportStore) {
+                        reportStore.storeReport(report);
+                    }
+                    result.set(buffered);
+                } catch (RamlViolationException e) {
+                    synchronized (reportStore) {
+                        reportStore.storeReport(e.getReport());
+                    }
+                    buffered.close();
+                    result.setException(e);
+                } catch (RuntimeException e) {
+                    buffered.close();
+                    result.setException(e);
+                }
+            }
+
+            @Override
+            public OutputStream getBody() throws IOException {
+                if (body == null) {
+                    body = new SavingOutputStream(request.getBody(), maxCapture);
+                }
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return request.getHeaders();
+            }
+
+            @Override
+            public HttpMethod getMethod() {
+                return request.getMethod();
+            }
+
+            @Override
+            public URI getURI() {
+                return request.getURI();
+            }
+        }
+    }
+
+    /**
+     * A response whose body can be read multiple times if it is not larger than the limit.
+     * A larger body is read only up to the limit, the rest is left in the original stream.
+     */
+    private static class BufferedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final byte[] body;
+        private final InputStream rest;
+
+        public BufferedResponse(ClientHttpResponse response, int limit) throws IOException {
+            this.response = response;
+            final InputStream in = response.getBody();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[8192];
+            int read = -1;
+            while (in != null && out.size() <= limit && (read = in.read(buf)) >= 0) {
+                out.write(buf, 0, read);
+            }
+            this.body = out.toByteArray();
+            this.rest = read < 0 ? null : in;
+        }
+
+        public boolean isComplete() {
+            return rest == null;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return rest == null
+                    ? new ByteArrayInputStream(body)
+                    : new SequenceInputStream(new ByteArrayInputStream(body), rest);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+    }
+}
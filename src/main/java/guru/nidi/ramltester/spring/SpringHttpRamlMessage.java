@@ -15,13 +15,11 @@
  */
 package guru.nidi.ramltester.spring;
 
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.Values;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
-import java.util.List;
-import java.util.Map;
-
 /**
  *
  */
@@ -33,10 +31,6 @@ class SpringHttpRamlMessage {
     }
 
     protected Values headerValuesOf(HttpHeaders headers) {
-        final Values values = new Values();
-        for (final Map.Entry<String, List<String>> entry : headers.entrySet()) {
-            values.addValues(entry.getKey(), entry.getValue());
-        }
-        return values;
+        return new HeaderValuesBuilder().addAll(headers).build();
     }
 }
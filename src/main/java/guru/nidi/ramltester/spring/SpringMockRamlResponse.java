@@ -15,6 +15,7 @@
  */
 package guru.nidi.ramltester.spring;
 
+import guru.nidi.ramltester.model.HeaderValuesBuilder;
 import guru.nidi.ramltester.model.RamlResponse;
 import guru.nidi.ramltester.model.Values;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -46,10 +47,10 @@ public class SpringMockRamlResponse implements RamlResponse {
 
     @Override
     public Values getHeaderValues() {
-        final Values headers = new Values();
+        final HeaderValuesBuilder headers = new HeaderValuesBuilder();
         for (final String name : delegate.getHeaderNames()) {
-            headers.addValues(name, delegate.getHeaders(name));
+            headers.addAll(name, delegate.getHeaders(name));
         }
-        return headers;
+        return headers.build();
     }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Keeps at most a given number of bytes, the rest is dropped.
+ */
+public class BoundedBuffer extends ByteArrayOutputStream {
+    private final int limit;
+    private boolean truncated;
+
+    public BoundedBuffer(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    private boolean isFull() {
+        return count >= limit;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        if (isFull()) {
+            truncated = true;
+        } else {
+            super.write(b);
+        }
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        final int free = limit - count;
+        if (len > free) {
+            truncated = true;
+            super.write(b, off, free);
+        } else {
+            super.write(b, off, len);
+        }
+    }
+}
@@ -23,10 +23,11 @@ import org.apache.commons.fileupload.FileUploadException;
 import org.apache.commons.fileupload.RequestContext;
 import org.apache.commons.fileupload.servlet.ServletFileUpload;
 
-import java.io.*;
-import java.net.URLDecoder;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 /**
  *
@@ -35,11 +36,7 @@ public class FormDecoder {
     private static final String DEFAULT_CHARSET = "iso-8859-1";
     private static final MediaType MULTIPART = MediaType.valueOf("multipart/form-data");
     private static final MediaType URL_ENCODED = MediaType.valueOf("application/x-www-form-urlencoded");
-    private static final Pattern QUERY_PARAM = Pattern.compile("([^&=]+)(=?)([^&]+)?");
-    private static final int
-            GROUP_NAME = 1,
-            GROUP_EQUAL = 2,
-            GROUP_VALUE = 3;
+    private static final byte[] URL_ENCODED_SPECIALS = {'&', '=', '+', '%'};
 
     public static boolean supportsFormParameters(MediaType mediaType) {
         return mediaType.isCompatibleWith(URL_ENCODED) || mediaType.isCompatibleWith(MULTIPART);
@@ -56,15 +53,7 @@ public class FormDecoder {
             return new Values();
         }
         if (type.isCompatibleWith(URL_ENCODED)) {
-            final String charset = type.getCharset(DEFAULT_CHARSET);
-            try {
-                final String content = IoUtils.readIntoString(new InputStreamReader(new ByteArrayInputStream(request.getContent()), charset));
-                return decodeUrlEncoded(content, charset);
-            } catch (UnsupportedEncodingException e) {
-                throw new IllegalArgumentException("Unknown charset " + charset, e);
-            } catch (IOException e) {
-                throw new AssertionError(e);
-            }
+            return decodeUrlEncoded(request.getContent(), type.getCharset(DEFAULT_CHARSET));
         }
         if (type.isCompatibleWith(MULTIPART)) {
             return decodeMultipart(request);
@@ -100,17 +89,21 @@ public class FormDecoder {
 
     private Object valueOf(FileItemStream itemStream) throws IOException {
         if (itemStream.isFormField()) {
-            final String charset = charset(itemStream.getContentType());
-            return IoUtils.readIntoString(new InputStreamReader(itemStream.openStream(), charset));
+            final Charset charset = charsetOf(charset(itemStream.getContentType()));
+            return new String(IoUtils.readIntoByteArray(itemStream.openStream()), charset);
         }
+        //the content is skipped by the iterator without being buffered
         return new FileValue();
     }
 
     private static class RamlRequestFileUploadContext implements RequestContext {
         private final RamlRequest request;
+        private final byte[] content;
 
         public RamlRequestFileUploadContext(RamlRequest request) {
             this.request = request;
+            final byte[] raw = request.getContent();
+            this.content = raw == null ? new byte[0] : raw;
         }
 
         @Override
@@ -125,35 +118,87 @@ public class FormDecoder {
 
         @Override
         public int getContentLength() {
-            return request.getContent().length;
+            return content.length;
         }
 
         @Override
         public InputStream getInputStream() throws IOException {
-            return new ByteArrayInputStream(request.getContent());
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+    private static Charset charsetOf(String charset) {
+        try {
+            return Charset.forName(charset);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown charset " + charset, e);
         }
     }
 
-    private Values decodeUrlEncoded(String content, String charset) {
-        final Values q = new Values();
-        if (content != null) {
-            final Matcher m = QUERY_PARAM.matcher(content);
-            while (m.find()) {
-                final String name = urlDecode(m.group(GROUP_NAME), charset);
-                final String eq = m.group(GROUP_EQUAL);
-                final String value = m.group(GROUP_VALUE);
-                q.addValue(name, (value == null ? (eq != null && eq.length() > 0 ? "" : null) : urlDecode(value, charset)));
+    private Values decodeUrlEncoded(byte[] content, String charsetName) {
+        if (content == null) {
+            return new Values();
+        }
+        final Charset charset = charsetOf(charsetName);
+        final Values values = new Values();
+        if (!Arrays.equals(URL_ENCODED_SPECIALS, "&=+%".getBytes(charset))) {
+            //separators are not single ASCII bytes, we have to decode the whole content first
+            UriComponents.parseQuery(new String(content, charset), charsetName, values);
+            return values;
+        }
+        final byte[] buf = new byte[content.length];
+        int pos = 0;
+        while (pos < content.length) {
+            if (content[pos] == '&' || content[pos] == '=') {
+                pos++;
+                continue;
+            }
+            final int nameEnd = tokenEnd(content, pos, true);
+            final String name = urlDecode(content, pos, nameEnd, buf, charset);
+            pos = nameEnd;
+            if (pos < content.length && content[pos] == '=') {
+                final int valueEnd = tokenEnd(content, pos + 1, false);
+                values.addValue(name, urlDecode(content, pos + 1, valueEnd, buf, charset));
+                pos = valueEnd;
+            } else {
+                values.addValue(name, null);
             }
         }
-        return q;
+        return values;
     }
 
-    private String urlDecode(String part, String charset) {
-        try {
-            return URLDecoder.decode(part, charset);
-        } catch (UnsupportedEncodingException e) {
-            throw new IllegalArgumentException("Unknown charset " + charset, e);
+    private static int tokenEnd(byte[] content, int start, boolean stopAtEquals) {
+        int pos = start;
+        while (pos < content.length && content[pos] != '&' && (!stopAtEquals || content[pos] != '=')) {
+            pos++;
         }
+        return pos;
     }
 
+    /**
+     * Same as {@link java.net.URLDecoder#decode(String, String)}, but works directly on the encoded bytes.
+     */
+    private static String urlDecode(byte[] content, int start, int end, byte[] buf, Charset charset) {
+        int len = 0;
+        for (int i = start; i < end; i++) {
+            final byte b = content[i];
+            if (b == '+') {
+                buf[len++] = ' ';
+            } else if (b == '%') {
+                if (i + 2 >= end) {
+                    throw new IllegalArgumentException("URLDecoder: Incomplete trailing escape (%) pattern");
+                }
+                final int hi = Character.digit(content[i + 1], 16);
+                final int lo = Character.digit(content[i + 2], 16);
+                if (hi < 0 || lo < 0) {
+                    throw new IllegalArgumentException("URLDecoder: Illegal hex characters in escape (%) pattern");
+                }
+                buf[len++] = (byte) ((hi << 4) + lo);
+                i += 2;
+            } else {
+                buf[len++] = b;
+            }
+        }
+        return new String(buf, 0, len, charset);
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Saves the data while it is read from the delegate, the saved data is bounded.
+ */
+public class SavingInputStream extends FilterInputStream {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final BoundedBuffer saved;
+
+    public SavingInputStream(InputStream delegate, int limit) {
+        super(delegate);
+        this.saved = new BoundedBuffer(limit);
+    }
+
+    public byte[] getSaved() {
+        return saved.toByteArray();
+    }
+
+    public boolean isTruncated() {
+        return saved.isTruncated();
+    }
+
+    /**
+     * Called when the end of the delegate is reached.
+     */
+    protected void endReached() {
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = in.read();
+        if (b < 0) {
+            endReached();
+        } else {
+            saved.write(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int read = in.read(b, off, len);
+        if (read < 0) {
+            endReached();
+        } else {
+            saved.write(b, off, read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0) {
+            return 0;
+        }
+        final byte[] buf = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        return Math.max(read(buf, 0, buf.length), 0);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        //not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
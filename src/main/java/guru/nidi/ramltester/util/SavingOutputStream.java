@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Saves the data while it is written to the delegate, the saved data is bounded.
+ */
+public class SavingOutputStream extends FilterOutputStream {
+    private final BoundedBuffer saved;
+
+    public SavingOutputStream(OutputStream delegate, int limit) {
+        super(delegate);
+        this.saved = new BoundedBuffer(limit);
+    }
+
+    public byte[] getSaved() {
+        return saved.toByteArray();
+    }
+
+    public boolean isTruncated() {
+        return saved.isTruncated();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        saved.write(b);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        saved.write(b, off, len);
+        out.write(b, off, len);
+    }
+}
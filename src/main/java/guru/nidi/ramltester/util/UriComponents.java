@@ -17,110 +17,245 @@ package guru.nidi.ramltester.util;
 
 import guru.nidi.ramltester.model.Values;
 
-import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- *
+ * Splits an http(s) URL into its components.
+ * The URL is scanned once and only offsets into the original string are kept,
+ * the query parameters are parsed when they are first needed.
  */
 public final class UriComponents {
+    private static final String HTTP = "http", HTTPS = "https";
+
+    private final String url;
     private final String scheme;
-    private final String userInfo;
-    private final String host;
+    private final int userStart, userEnd;
+    private final int hostStart, hostEnd;
     private final Integer port;
-    private final String path;
-    private final String queryString;
-    private final Values queryParameters;
-
-    private static final class HttpUrl {
-        private static final String
-                HTTP = "(?i)(http|https):",
-                USERINFO = "([^@/]*)",
-                HOST_IPV4 = "[^\\[/?#:]*",
-                HOST_IPV6 = "\\[[\\p{XDigit}:\\.]*[%\\p{Alnum}]*\\]",
-                HOST = "(" + HOST_IPV6 + "|" + HOST_IPV4 + ")",
-                PORT = "(\\d*)",
-                PATH = "([^?#]*)",
-                LAST = "(.*)";
-
-        public static final Pattern
-                PATTERN = Pattern.compile("^" + HTTP + "(//(" + USERINFO + "@)?" + HOST + "(:" + PORT + ")?" + ")?" + PATH + "(\\?" + LAST + ")?");
-
-        public static final int
-                GROUP_SCHEME = 1,
-                GROUP_USER = 4,
-                GROUP_HOST = 5,
-                GROUP_PORT = 7,
-                GROUP_PATH = 8,
-                GROUP_QUERY = 10;
-    }
-
-    private static final class QueryParam {
-        public static final Pattern PATTERN = Pattern.compile("([^&=]+)(=?)([^&]+)?");
-
-        public static final int
-                GROUP_NAME = 1,
-                GROUP_EQUAL = 2,
-                GROUP_VALUE = 3;
-    }
-
-    private UriComponents(String scheme, String userInfo, String host, Integer port, String path, String query) {
+    private final int pathStart, pathEnd;
+    private final int queryStart;
+    private Values queryParameters;
+
+    private UriComponents(String url, String scheme, int userStart, int userEnd, int hostStart, int hostEnd, Integer port, int pathStart, int pathEnd, int queryStart) {
+        this.url = url;
         this.scheme = scheme;
-        this.userInfo = userInfo;
-        this.host = host;
+        this.userStart = userStart;
+        this.userEnd = userEnd;
+        this.hostStart = hostStart;
+        this.hostEnd = hostEnd;
         this.port = port;
-        this.path = path;
-        this.queryString = query;
-        this.queryParameters = parseQuery(query);
+        this.pathStart = pathStart;
+        this.pathEnd = pathEnd;
+        this.queryStart = queryStart;
     }
 
+    /**
+     * Parses <code>scheme://[userInfo@]host[:port]path[?query]</code>.
+     * If the authority followed by path and query cannot be matched, the parse is retried without user info,
+     * so the host part may contain an '@' or end before a '?' that would otherwise belong to the user info.
+     *
+     * @param httpUrl the URL to parse
+     * @return the components
+     * @throws IllegalArgumentException if httpUrl is not a valid http(s) URL
+     */
     public static UriComponents fromHttpUrl(String httpUrl) {
-        final Matcher m = HttpUrl.PATTERN.matcher(httpUrl);
-        if (m.matches()) {
-            final String scheme = m.group(HttpUrl.GROUP_SCHEME) == null ? null : m.group(HttpUrl.GROUP_SCHEME).toLowerCase(Locale.ENGLISH);
-            final String host = m.group(HttpUrl.GROUP_HOST);
-            if (scheme != null && scheme.length() > 0 && (host == null || host.length() == 0)) {
-                throw new IllegalArgumentException("[" + httpUrl + "] is not a valid HTTP URL");
-            }
-            final String portString = m.group(HttpUrl.GROUP_PORT);
-            final Integer port = (portString != null && portString.length() > 0)
-                    ? Integer.parseInt(portString)
-                    : null;
-            final String path = m.group(HttpUrl.GROUP_PATH);
-            final String query = m.group(HttpUrl.GROUP_QUERY);
-            final String userInfo = m.group(HttpUrl.GROUP_USER);
-
-            return new UriComponents(scheme, userInfo, host, port, path, query);
+        final int len = httpUrl.length();
+        final String scheme;
+        if (len > 4 && isHttp(httpUrl) && httpUrl.charAt(4) == ':') {
+            scheme = HTTP;
+        } else if (len > 5 && isHttp(httpUrl) && (httpUrl.charAt(4) | 0x20) == 's' && httpUrl.charAt(5) == ':') {
+            scheme = HTTPS;
+        } else {
+            throw invalidUrl(httpUrl);
+        }
+        final int authStart = scheme.length() + 1;
+        if (!httpUrl.startsWith("//", authStart)) {
+            throw invalidUrl(httpUrl);
+        }
+        final int userStart = authStart + 2;
+        int userEnd = userStart;
+        while (userEnd < len && httpUrl.charAt(userEnd) != '@' && httpUrl.charAt(userEnd) != '/') {
+            userEnd++;
+        }
+        UriComponents res = null;
+        if (userEnd < len && httpUrl.charAt(userEnd) == '@') {
+            res = parseAuthority(httpUrl, scheme, userStart, userEnd, userEnd + 1);
+        }
+        if (res == null) {
+            res = parseAuthority(httpUrl, scheme, -1, -1, userStart);
+        }
+        if (res == null || res.hostStart == res.hostEnd) {
+            throw invalidUrl(httpUrl);
+        }
+        return res;
+    }
+
+    private static boolean isHttp(String s) {
+        return (s.charAt(0) | 0x20) == 'h' && (s.charAt(1) | 0x20) == 't' && (s.charAt(2) | 0x20) == 't' && (s.charAt(3) | 0x20) == 'p';
+    }
+
+    private static IllegalArgumentException invalidUrl(String url) {
+        return new IllegalArgumentException("[" + url + "] is not a valid HTTP URL");
+    }
+
+    private static UriComponents parseAuthority(String url, String scheme, int userStart, int userEnd, int hostStart) {
+        final int len = url.length();
+        int hostEnd = hostStart;
+        if (hostStart < len && url.charAt(hostStart) == '[') {
+            hostEnd = ipv6End(url, hostStart);
         } else {
-            throw new IllegalArgumentException("[" + httpUrl + "] is not a valid HTTP URL");
+            while (hostEnd < len && isIpv4HostChar(url.charAt(hostEnd))) {
+                hostEnd++;
+            }
+        }
+        int pathStart = hostEnd;
+        Integer port = null;
+        if (hostEnd < len && url.charAt(hostEnd) == ':') {
+            pathStart++;
+            while (pathStart < len && url.charAt(pathStart) >= '0' && url.charAt(pathStart) <= '9') {
+                pathStart++;
+            }
+            if (pathStart > hostEnd + 1) {
+                port = Integer.parseInt(url.substring(hostEnd + 1, pathStart));
+            }
         }
+        int pathEnd = pathStart;
+        while (pathEnd < len && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        if (pathEnd == len) {
+            return new UriComponents(url, scheme, userStart, userEnd, hostStart, hostEnd, port, pathStart, pathEnd, -1);
+        }
+        if (url.charAt(pathEnd) == '#' || containsLineTerminator(url, pathEnd + 1)) {
+            return null;
+        }
+        return new UriComponents(url, scheme, userStart, userEnd, hostStart, hostEnd, port, pathStart, pathEnd, pathEnd + 1);
+    }
+
+    private static boolean isIpv4HostChar(char c) {
+        return c != '[' && c != '/' && c != '?' && c != '#' && c != ':';
+    }
+
+    /**
+     * An IPv6 host is <code>[</code>, hex digits, colons and dots, then alphanumerics and <code>%</code> (the zone), then <code>]</code>.
+     *
+     * @return the end of the host or start, if there is no valid IPv6 host.
+     */
+    private static int ipv6End(String url, int start) {
+        final int close = url.indexOf(']', start);
+        if (close < 0) {
+            return start;
+        }
+        int addressEnd = start + 1;
+        while (addressEnd < close && isIpv6AddressChar(url.charAt(addressEnd))) {
+            addressEnd++;
+        }
+        int zoneStart = close;
+        while (zoneStart > start + 1 && isIpv6ZoneChar(url.charAt(zoneStart - 1))) {
+            zoneStart--;
+        }
+        return zoneStart <= addressEnd ? close + 1 : start;
+    }
+
+    private static boolean isIpv6AddressChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == ':' || c == '.';
+    }
+
+    private static boolean isIpv6ZoneChar(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '%';
+    }
+
+    private static boolean containsLineTerminator(String s, int start) {
+        for (int i = start; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param path a '/' separated path
+     * @return the non empty segments of the path
+     */
+    public static List<String> pathSegments(String path) {
+        final List<String> segments = new ArrayList<>();
+        for (final String segment : path.split("/")) {
+            if (segment.length() > 0) {
+                segments.add(segment);
+            }
+        }
+        return segments;
     }
 
     public static Values parseQuery(String query) {
         final Values q = new Values();
-        if (query != null) {
-            final Matcher m = QueryParam.PATTERN.matcher(query);
-            while (m.find()) {
-                final String name = m.group(QueryParam.GROUP_NAME);
-                final String eq = m.group(QueryParam.GROUP_EQUAL);
-                final String value = m.group(QueryParam.GROUP_VALUE);
-                final String emptyValue = eq != null && eq.length() > 0 ? "" : null;
-                q.addValue(name, value == null ? emptyValue : value);
+        parseQuery(query, null, q);
+        return q;
+    }
+
+    /**
+     * Adds all <code>name[=[value]]</code> parts of an '&amp;' separated query to values.
+     * Parts without name are ignored, a value can contain '='.
+     *
+     * @param query   the query or null
+     * @param charset the charset to url decode names and values with or null to take them as they are
+     * @param values  the values to add the parameters to
+     */
+    static void parseQuery(String query, String charset, Values values) {
+        if (query == null) {
+            return;
+        }
+        final int len = query.length();
+        int pos = 0;
+        while (pos < len) {
+            final char c = query.charAt(pos);
+            if (c == '&' || c == '=') {
+                pos++;
+                continue;
+            }
+            final int nameStart = pos;
+            while (pos < len && query.charAt(pos) != '&' && query.charAt(pos) != '=') {
+                pos++;
+            }
+            final String name = decode(query.substring(nameStart, pos), charset);
+            if (pos < len && query.charAt(pos) == '=') {
+                final int valueStart = ++pos;
+                while (pos < len && query.charAt(pos) != '&') {
+                    pos++;
+                }
+                values.addValue(name, decode(query.substring(valueStart, pos), charset));
+            } else {
+                values.addValue(name, null);
             }
         }
-        return q;
+    }
+
+    private static String decode(String s, String charset) {
+        if (charset == null) {
+            return s;
+        }
+        try {
+            return URLDecoder.decode(s, charset);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalArgumentException("Unknown charset " + charset, e);
+        }
     }
 
     public String getServer() {
-        return (scheme == null ? "" : (scheme + "://")) +
+        final String userInfo = getUserInfo();
+        return scheme + "://" +
                 (userInfo == null ? "" : (userInfo + "@")) +
-                (host == null ? "" : host) +
+                getHost() +
                 (port == null ? "" : (":" + port));
     }
 
     public String getUri() {
-        return getServer() + (path == null ? "" : path);
+        return getServer() + getPath();
     }
 
     public String getScheme() {
@@ -128,11 +263,11 @@ public final class UriComponents {
     }
 
     public String getUserInfo() {
-        return userInfo;
+        return userStart < 0 ? null : url.substring(userStart, userEnd);
     }
 
     public String getHost() {
-        return host;
+        return url.substring(hostStart, hostEnd);
     }
 
     public Integer getPort() {
@@ -140,14 +275,17 @@ public final class UriComponents {
     }
 
     public String getPath() {
-        return path;
+        return url.substring(pathStart, pathEnd);
     }
 
     public String getQueryString() {
-        return queryString;
+        return queryStart < 0 ? null : url.substring(queryStart);
     }
 
     public Values getQueryParameters() {
+        if (queryParameters == null) {
+            queryParameters = parseQuery(getQueryString());
+        }
         return queryParameters;
     }
 }
@@ -43,19 +43,31 @@ public class JavaXmlSchemaValidator implements SchemaValidator {
     private static final MediaType APPLICATION_XML = MediaType.valueOf("application/xml");
     private static final MediaType TEXT_XML = MediaType.valueOf("text/xml");
 
+    private static final int DEFAULT_MAX_MESSAGES = 100;
+
     private final Loader loader;
+    private final int maxMessages;
 
-    private JavaXmlSchemaValidator(Loader loader) {
+    private JavaXmlSchemaValidator(Loader loader, int maxMessages) {
         this.loader = loader;
+        this.maxMessages = maxMessages;
     }
 
     public JavaXmlSchemaValidator() {
-        this(null);
+        this(null, DEFAULT_MAX_MESSAGES);
+    }
+
+    /**
+     * @param maxMessages the maximum number of messages listed in a violation, the default is 100
+     * @return the new validator
+     */
+    public JavaXmlSchemaValidator limitingMessages(int maxMessages) {
+        return new JavaXmlSchemaValidator(loader, maxMessages);
     }
 
     @Override
     public SchemaValidator withLoader(Loader loader) {
-        return new JavaXmlSchemaValidator(loader);
+        return new JavaXmlSchemaValidator(loader, maxMessages);
     }
 
     @Override
@@ -70,15 +82,18 @@ public class JavaXmlSchemaValidator implements SchemaValidator {
             schemaFactory.setResourceResolver(new LoaderLSResourceResolver(loader));
             final Schema s = schemaFactory.newSchema(new StreamSource(schema));
             final Validator validator = s.newValidator();
-            final ViolationsWritingErrorHandler errorHandler = new ViolationsWritingErrorHandler();
+            final ViolationsWritingErrorHandler errorHandler = new ViolationsWritingErrorHandler(maxMessages);
             validator.setErrorHandler(errorHandler);
             validator.validate(new StreamSource(content));
             if (!errorHandler.getExceptions().isEmpty()) {
-                String msg = "";
+                final StringBuilder msg = new StringBuilder();
                 for (final SAXParseException ex : errorHandler.getExceptions()) {
-                    msg += new Message("javaXmlSchemaValidator.message", ex.getLineNumber(), ex.getColumnNumber(), ex.getMessage());
+                    msg.append(new Message("javaXmlSchemaValidator.message", ex.getLineNumber(), ex.getColumnNumber(), ex.getMessage()));
                 }
-                violations.add(message.withParam(msg), new XmlSchemaViolationCause(errorHandler.getExceptions()));
+                if (errorHandler.getDropped() > 0) {
+                    msg.append(new Message("schemaValidator.more", errorHandler.getDropped()));
+                }
+                violations.add(message.withParam(msg.toString()), new XmlSchemaViolationCause(errorHandler.getExceptions()));
             }
         } catch (SAXException e) {
             violations.add(message.withParam(new Message("schema.invalid", e.getMessage())), new XmlSchemaViolationCause(e));
@@ -89,25 +104,43 @@ public class JavaXmlSchemaValidator implements SchemaValidator {
 
     private static class ViolationsWritingErrorHandler implements ErrorHandler {
         private final List<SAXParseException> exceptions = new ArrayList<>();
+        private final int maxExceptions;
+        private int dropped;
+
+        public ViolationsWritingErrorHandler(int maxExceptions) {
+            this.maxExceptions = maxExceptions;
+        }
 
         @Override
         public void warning(SAXParseException e) throws SAXException {
-            exceptions.add(e);
+            add(e);
         }
 
         @Override
         public void error(SAXParseException e) throws SAXException {
-            exceptions.add(e);
+            add(e);
         }
 
         @Override
         public void fatalError(SAXParseException e) throws SAXException {
-            exceptions.add(e);
+            add(e);
+        }
+
+        private void add(SAXParseException e) {
+            if (exceptions.size() < maxExceptions) {
+                exceptions.add(e);
+            } else {
+                dropped++;
+            }
         }
 
         public List<SAXParseException> getExceptions() {
             return exceptions;
         }
+
+        public int getDropped() {
+            return dropped;
+        }
     }
 
 }
@@ -39,25 +39,37 @@ import java.io.Reader;
  *
  */
 public class JsonSchemaValidator implements SchemaValidator {
+    private static final int DEFAULT_MAX_MESSAGES = 100;
+
     private JsonSchemaFactory factory;
     private final Loader loader;
+    private final int maxMessages;
 
-    private JsonSchemaValidator(JsonSchemaFactory factory, Loader loader) {
+    private JsonSchemaValidator(JsonSchemaFactory factory, Loader loader, int maxMessages) {
         this.factory = factory;
         this.loader = loader;
+        this.maxMessages = maxMessages;
     }
 
     public JsonSchemaValidator() {
-        this(null, null);
+        this(null, null, DEFAULT_MAX_MESSAGES);
     }
 
     public JsonSchemaValidator using(JsonSchemaFactory factory) {
-        return new JsonSchemaValidator(factory, loader);
+        return new JsonSchemaValidator(factory, loader, maxMessages);
+    }
+
+    /**
+     * @param maxMessages the maximum number of messages listed in a violation, the default is 100
+     * @return the new validator
+     */
+    public JsonSchemaValidator limitingMessages(int maxMessages) {
+        return new JsonSchemaValidator(factory, loader, maxMessages);
     }
 
     @Override
     public SchemaValidator withLoader(Loader loader) {
-        return new JsonSchemaValidator(factory, loader);
+        return new JsonSchemaValidator(factory, loader, maxMessages);
     }
 
     @Override
@@ -83,11 +95,17 @@ public class JsonSchemaValidator implements SchemaValidator {
             final JsonSchema jsonSchema = factory.getJsonSchema(JsonLoader.fromReader(schema));
             final ProcessingReport report = jsonSchema.validate(JsonLoader.fromReader(content));
             if (!report.isSuccess()) {
-                String msg = "";
+                final StringBuilder msg = new StringBuilder();
+                int count = 0;
                 for (final ProcessingMessage reportLine : report) {
-                    msg += new Message("jsonSchemaValidator.message", reportLine.toString());
+                    if (count++ < maxMessages) {
+                        msg.append(new Message("jsonSchemaValidator.message", reportLine.toString()));
+                    }
+                }
+                if (count > maxMessages) {
+                    msg.append(new Message("schemaValidator.more", count - maxMessages));
                 }
-                violations.add(message.withParam(msg), new JsonSchemaViolationCause(report));
+                violations.add(message.withParam(msg.toString()), new JsonSchemaViolationCause(report));
             }
         } catch (ProcessingException e) {
             violations.add(message.withMessageParam("schema.invalid", e.getMessage()), new JsonSchemaViolationCause(e));
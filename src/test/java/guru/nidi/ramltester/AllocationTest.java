@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlChecker;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.model.RamlResponse;
+import guru.nidi.ramltester.spring.SpringMockRamlRequest;
+import guru.nidi.ramltester.spring.SpringMockRamlResponse;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.Properties;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * Measures the bytes allocated by one check of typical exchanges and compares them with allocation-baseline.properties.
+ * The values depend on the JVM, so the test is skipped on other JVMs than the one the baseline was measured on.
+ * Run with -Dallocation.update=true to write the measured values to target/allocation-baseline.properties.
+ */
+public class AllocationTest extends HighlevelTestBase {
+    private static final int WARMUP = 5000;
+    private static final int CHECKS = 2000;
+    private static final double TOLERANCE = 1.2;
+    private static final String JVM = "jvm";
+    private static final boolean UPDATE = Boolean.getBoolean("allocation.update");
+    private static final RamlDefinition allocation = RamlLoaders.fromClasspath(AllocationTest.class).load("allocation.raml");
+    private static final Properties baseline = new Properties();
+    private static final Properties measured = new Properties();
+    private static com.sun.management.ThreadMXBean threads;
+
+    @BeforeClass
+    public static void init() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        try (final InputStream in = AllocationTest.class.getResourceAsStream("allocation-baseline.properties")) {
+            baseline.load(in);
+        }
+        final String jvm = jvm();
+        measured.setProperty(JVM, jvm);
+        assumeTrue("The baseline is measured on " + baseline.getProperty(JVM) + ", not on " + jvm,
+                UPDATE || jvm.equals(baseline.getProperty(JVM)));
+    }
+
+    private static String jvm() {
+        return System.getProperty("java.vm.name") + " " + System.getProperty("java.specification.version");
+    }
+
+    @AfterClass
+    public static void save() throws IOException {
+        if (UPDATE) {
+            try (final OutputStream out = new FileOutputStream("target/allocation-baseline.properties")) {
+                measured.store(out, "Bytes allocated by one check in AllocationTest");
+            }
+        }
+    }
+
+    @Test
+    public void getWithQueryParameters() throws Exception {
+        assertAllocation("get.query",
+                get("/items?q=hula&page=2&sort=name"),
+                jsonResponse(200, "[\"a\",\"b\"]"));
+    }
+
+    @Test
+    public void jsonPost() throws Exception {
+        final MockHttpServletResponse response = response(201, "", null);
+        response.setHeader("Location", "http://nidi.guru/raml/v1/items/1");
+        assertAllocation("post.json",
+                post("/items").contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"hula\",\"count\":42}"),
+                response);
+    }
+
+    @Test
+    public void formPost() throws Exception {
+        assertAllocation("post.form",
+                post("/form").contentType(MediaType.APPLICATION_FORM_URLENCODED).param("name", "a+b").param("count", "3"),
+                response(204, "", null));
+    }
+
+    @Test
+    public void multipartPost() throws Exception {
+        assertAllocation("post.multipart",
+                fileUpload("/upload").file("file", new byte[]{1, 2, 3})
+                        .contentType(MediaType.MULTIPART_FORM_DATA).param("name", "hula"),
+                response(204, "", null));
+    }
+
+    private void assertAllocation(String name, MockHttpServletRequestBuilder request, MockHttpServletResponse response) {
+        final RamlRequest ramlRequest = new SpringMockRamlRequest(request.buildRequest(new MockServletContext()));
+        final RamlResponse ramlResponse = new SpringMockRamlResponse(response);
+        final RamlChecker checker = allocation.assumingBaseUri("http://nidi.guru/raml/v1").createTester();
+        assertNoViolations(checker.check(ramlRequest, ramlResponse));
+        for (int i = 0; i < WARMUP; i++) {
+            checker.check(ramlRequest, ramlResponse);
+        }
+        final long threadId = Thread.currentThread().getId();
+        final long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CHECKS; i++) {
+            checker.check(ramlRequest, ramlResponse);
+        }
+        final long perCheck = (threads.getThreadAllocatedBytes(threadId) - start) / CHECKS;
+        measured.setProperty(name, Long.toString(perCheck));
+
+        if (UPDATE) {
+            return;
+        }
+        final String limit = baseline.getProperty(name);
+        assertNotNull("No baseline for " + name + ", it allocates " + perCheck + " bytes per check", limit);
+        assertTrue(name + " allocates " + perCheck + " bytes per check, the baseline is " + limit,
+                perCheck <= Long.parseLong(limit) * TOLERANCE);
+    }
+}
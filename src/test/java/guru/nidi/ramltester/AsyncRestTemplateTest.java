@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.spring.RamlAsyncRestTemplate;
+import guru.nidi.ramltester.util.ServerTest;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static guru.nidi.ramltester.util.TestUtils.violations;
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class AsyncRestTemplateTest extends ServerTest {
+    private static final RamlDefinition definition = RamlLoaders.fromClasspath(AsyncRestTemplateTest.class)
+            .load("httpCommons.raml")
+            .assumingBaseUri("http://nidi.guru/raml/v1");
+
+    private static RamlAsyncRestTemplate template() {
+        return definition.createAsyncRestTemplate(requestFactory());
+    }
+
+    private static SimpleClientHttpRequestFactory requestFactory() {
+        //no keep-alive, the connections would outlive the tomcat of this test
+        final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory() {
+            @Override
+            protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+                super.prepareConnection(connection, httpMethod);
+                connection.setRequestProperty("Connection", "close");
+            }
+        };
+        requestFactory.setTaskExecutor(new SimpleAsyncTaskExecutor());
+        return requestFactory;
+    }
+
+    @Test
+    public void asyncOk() throws InterruptedException, ExecutionException {
+        final RamlAsyncRestTemplate template = template();
+        final ResponseEntity<String> res = template.getForEntity(url("base/data"), String.class).get();
+        assertEquals("\"json string\"", res.getBody());
+        assertTrue(template.getLastReport().isEmpty());
+    }
+
+    @Test
+    public void asyncNok() throws InterruptedException, ExecutionException {
+        final RamlAsyncRestTemplate template = template();
+        final ResponseEntity<String> res = template.getForEntity(url("base/data?param=bu"), String.class).get();
+        assertEquals("illegal json", res.getBody());
+        assertEquals(violations("Query parameter 'param' on action(GET /base/data) is not defined"),
+                template.getLastReport().getRequestViolations());
+        assertEquals(1, template.getLastReport().getResponseViolations().size());
+    }
+
+    @Test
+    public void notCheckedWhenTooLarge() throws InterruptedException, ExecutionException {
+        final RamlAsyncRestTemplate template = template().capturingAtMost(5);
+        final ResponseEntity<String> res = template.getForEntity(url("base/data?param=bu"), String.class).get();
+        assertEquals("illegal json", res.getBody());
+        assertNull(template.getLastReport());
+    }
+
+    @Test
+    public void failedCheck() throws InterruptedException, TimeoutException {
+        final RamlAsyncRestTemplate template = new RamlAsyncRestTemplate(new CheckerConfig(null, null), requestFactory());
+        try {
+            template.getForEntity(url("base/data"), String.class).get(10, TimeUnit.SECONDS);
+            fail("Failing check not propagated");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RuntimeException);
+        }
+    }
+
+    @Test
+    public void concurrent() throws InterruptedException, ExecutionException {
+        final MultiReportAggregator aggregator = new MultiReportAggregator();
+        final RamlAsyncRestTemplate template = template().aggregating(aggregator);
+        final List<ListenableFuture<ResponseEntity<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            responses.add(template.getForEntity(url(i % 2 == 0 ? "base/data" : "base/data?param=" + i), String.class));
+        }
+        for (final ListenableFuture<ResponseEntity<String>> response : responses) {
+            assertEquals(200, response.get().getStatusCode().value());
+        }
+        assertEquals(50, aggregator.getReports(definition).size());
+    }
+
+    @Override
+    protected void init(Context ctx) {
+        Tomcat.addServlet(ctx, "app", new TestServlet());
+        ctx.addServletMapping("/*", "app");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.offline.HarReader;
+import guru.nidi.ramltester.offline.NdjsonReader;
+import guru.nidi.ramltester.offline.TrafficLog;
+import guru.nidi.ramltester.offline.TrafficLogReader;
+import guru.nidi.ramltester.servlet.ServletTester;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class BatchCheckTest {
+    private static final RamlDefinition simple = RamlLoaders.fromClasspath(BatchCheckTest.class).load("simple.raml");
+    private static final String NDJSON =
+            "{\"request\":{\"method\":\"GET\",\"url\":\"http://nidi.guru/raml/v1/data\"},\"response\":{\"status\":200,\"headers\":{\"Content-Type\":\"abc/xyz+json\"},\"body\":\"\\\"hula\\\"\"}}\n" +
+                    "\n" +
+                    "{\"request\":{\"method\":\"GET\",\"url\":\"http://nidi.guru/raml/v1/data\"},\"response\":{\"status\":200,\"headers\":{\"Content-Type\":[\"abc/xyz+json\"]},\"bodyBase64\":\"NDI=\"}}\n" +
+                    "{\"request\":{\"method\":\"GET\",\"url\":\"http://nidi.guru/raml/v1/undefined\"}}\n";
+    private static final String HAR = "{\"log\":{\"version\":\"1.2\",\"creator\":{\"name\":\"test\",\"version\":\"1\"},\"entries\":[" +
+            "{\"request\":{\"method\":\"GET\",\"url\":\"http://nidi.guru/raml/v1/data\",\"headers\":[]}," +
+            "\"response\":{\"status\":200,\"headers\":[{\"name\":\"content-type\",\"value\":\"abc/xyz+json\"}],\"content\":{\"text\":\"\\\"hula\\\"\"}}}," +
+            "{\"request\":{\"method\":\"POST\",\"url\":\"http://nidi.guru/raml/v1/data\",\"headers\":[]}," +
+            "\"response\":{\"status\":200,\"headers\":[],\"content\":{}}}]}}";
+
+    @Test
+    public void ndjson() throws IOException, InterruptedException {
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        assertEquals(3, simple.createBatchChecker().withThreads(2).aggregating(aggregator).check(new NdjsonReader(stream(NDJSON))));
+        assertEquals(1, withViolations(aggregator, "Body does not match schema"));
+        assertEquals(1, withViolations(aggregator, "Resource '/undefined' is not defined"));
+    }
+
+    @Test
+    public void failingChecksAreSkipped() throws IOException, InterruptedException {
+        final RamlDefinition invalidPattern = RamlLoaders.fromClasspath(BatchCheckTest.class).load("invalid-pattern.raml");
+        final StringBuilder ndjson = new StringBuilder(12000);
+        for (int i = 0; i < 100; i++) {
+            final String query = i % 2 == 0 ? "" : "?q=" + i;
+            ndjson.append("{\"request\":{\"method\":\"GET\",\"url\":\"http://nidi.guru/raml/v1/data").append(query)
+                    .append("\"},\"response\":{\"status\":200}}\n");
+        }
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        assertEquals(50, invalidPattern.createBatchChecker().withThreads(1).aggregating(aggregator)
+                .check(new NdjsonReader(stream(ndjson.toString()))));
+        assertEquals(50, aggregator.getReports().size());
+    }
+
+    @Test
+    public void har() throws IOException, InterruptedException {
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        assertEquals(2, simple.createBatchChecker().aggregating(aggregator).check(new HarReader(stream(HAR))));
+        assertEquals(1, withViolations(aggregator, "Action POST is not defined"));
+        assertEquals(2, aggregator.getReports().size());
+    }
+
+    @Test
+    public void commandLine() throws IOException, InterruptedException {
+        final File dir = Files.createTempDirectory("traffic").toFile();
+        final File traffic = new File(dir, "traffic.ndjson");
+        Files.write(traffic.toPath(), NDJSON.getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final int result = TrafficCheck.run(new String[]{"-threads", "1",
+                "src/test/resources/guru/nidi/ramltester/simple.raml", traffic.getPath()}, new PrintStream(out, true, "utf-8"));
+        assertEquals(1, result);
+        assertTrue(out.toString("utf-8").endsWith("3 exchanges checked, 2 with violations.\n"));
+    }
+
+    @Test
+    public void trafficLog() throws IOException, ServletException, InterruptedException {
+        final File dir = Files.createTempDirectory("traffic").toFile();
+        final RamlDefinition definition = simple.assumingBaseUri("http://nidi.guru/raml/v1");
+        try (final TrafficLog log = new TrafficLog(dir, "test", 1000, 100, true)) {
+            final ServletTester tester = new ServletTester(definition.createRecorder(log));
+            for (int i = 0; i < 20; i++) {
+                final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/data");
+                request.setPathInfo(i % 2 == 0 ? "/data" : "/undefined");
+                request.setQueryString("q=" + i);
+                assertTrue(tester.testAgainst(request, new MockHttpServletResponse(), new FilterChain() {
+                    @Override
+                    public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                        res.setContentType("abc/xyz+json");
+                        res.getOutputStream().write("\"hula\"".getBytes(StandardCharsets.UTF_8));
+                    }
+                }).isEmpty());
+            }
+        }
+        assertTrue(dir.list().length > 1);
+
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        assertEquals(20, definition.createBatchChecker().aggregating(aggregator).check(new TrafficLogReader(dir, "test")));
+        assertEquals(10, withViolations(aggregator, "Resource '/undefined' is not defined"));
+        assertEquals(10, withViolations(aggregator, "Query parameter 'q' on action(GET /data) is not defined"));
+    }
+
+    private InputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int withViolations(SimpleReportAggregator aggregator, String part) {
+        int count = 0;
+        for (final RamlReport report : aggregator.getReports()) {
+            if (report.toString().contains(part)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
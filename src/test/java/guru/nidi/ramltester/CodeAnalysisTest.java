@@ -31,7 +31,9 @@ import guru.nidi.codeassert.pmd.*;
 import guru.nidi.ramltester.core.ParameterCheckerTest;
 import guru.nidi.ramltester.core.RamlViolationMessage;
 import guru.nidi.ramltester.httpcomponents.RamlHttpClient;
+import guru.nidi.ramltester.model.ValuesTest;
 import guru.nidi.ramltester.util.MediaTypeTest;
+import guru.nidi.ramltester.util.UriComponentsTest;
 import net.sourceforge.pmd.RulePriority;
 import org.junit.Test;
 
@@ -46,10 +48,10 @@ public class CodeAnalysisTest extends CodeAssertTest {
     @Test
     public void dependencies() {
         class GuruNidiRamltester extends DependencyRuler {
-            DependencyRule $self, core, httpcomponents, restassured, restassured3, junit, validator, model, servlet, spring, jaxrs, util;
+            DependencyRule $self, core, httpcomponents, restassured, restassured3, junit, validator, model, servlet, spring, jaxrs, offline, proxy, util;
 
             public void defineRules() {
-                $self.mayUse(model, core, servlet, httpcomponents, restassured, restassured3, spring, jaxrs, validator, junit, util);
+                $self.mayUse(model, core, servlet, httpcomponents, restassured, restassured3, spring, jaxrs, validator, junit, offline, proxy, util);
                 core.mayUse(model, util);
                 util.mayUse(model);
                 servlet.mayUse(model, util, core);
@@ -60,6 +62,8 @@ public class CodeAnalysisTest extends CodeAssertTest {
                 validator.mayUse(util, core);
                 spring.mayUse(model, util, core, servlet);
                 jaxrs.mayUse(model, util, core);
+                offline.mayUse(model, util, core);
+                proxy.mayUse(model, util, core, offline);
             }
         }
 //TODO dependencies to externals (spring, httpcomponents etc.)
@@ -111,22 +115,38 @@ public class CodeAnalysisTest extends CodeAssertTest {
                         In.clazz(RamlViolationMessage.class).ignore("ConfusingTernary", "LocalVariableCouldBeFinal"),
                         In.loc("UriComponents#getServer").ignore("NPathComplexity"))
                 .because("arrays are only used internally",
-                        In.locs("*Response", "*Request").ignore("MethodReturnsInternalArray", "ArrayIsStoredDirectly"))
+                        In.locs("*Response", "*Request").ignore("MethodReturnsInternalArray", "ArrayIsStoredDirectly"),
+                        In.locs("HeaderValueMap", "RamlValidationCache$Entry").ignore("ArrayIsStoredDirectly"),
+                        In.loc("RecordedMessage").ignore("MethodReturnsInternalArray", "ArrayIsStoredDirectly"),
+                        In.loc("TrafficLogEncoder").ignore("MethodReturnsInternalArray"))
                 .because("not urgent and too many occasions",
                         In.everywhere().ignore(
                                 "AvoidInstantiatingObjectsInLoops", "JUnitAssertionsShouldIncludeMessage", "JUnitTestContainsTooManyAsserts", "MethodArgumentCouldBeFinal"))
                 .because("it's plain wrong",
                         In.loc("UsageCollector").ignore("ClassWithOnlyPrivateConstructorsShouldBeFinal"))
                 .because("it's checked and correct",
-                        In.locs("RelativeJsonSchemaAwareRamlDocumentBuilder", "MediaType", "ServletRamlMessageTest").ignore("CompareObjectsWithEquals"),
-                        In.locs("JsRegex", "MediaType").ignore("PreserveStackTrace"),
-                        In.locs("JsRegex", "Usage").ignore("AvoidCatchingGenericException"),
-                        In.classes(UriTest.class, ParameterCheckerTest.class, MediaTypeTest.class).ignore("JUnitTestsShouldIncludeAssert"))
+                        In.locs("RelativeJsonSchemaAwareRamlDocumentBuilder", "MediaType", "ServletRamlMessageTest", "JsRegex").ignore("CompareObjectsWithEquals"),
+                        In.locs("JsRegex", "MediaType", "RamlValidator").ignore("PreserveStackTrace"),
+                        In.locs("JsRegex", "Usage", "RamlSnapshots", "ReloadingRamlDefinition$Source", "TrafficLog", "RamlHttpAsyncClient$CheckTask", "BatchChecker$CheckTask", "RamlProxy",
+                                "RamlAsyncRestTemplate$CheckingRequestFactory$CheckingRequest").ignore("AvoidCatchingGenericException"),
+                        In.classes(UriTest.class, ParameterCheckerTest.class, MediaTypeTest.class, UriComponentsTest.class, ValuesTest.class, RamlDefinitionRegistryTest.class).ignore("JUnitTestsShouldIncludeAssert"))
                 .because("it's style",
                         In.loc("RamlValidatorChecker").ignore("CollapsibleIfStatements"))
+                .because("it's only alive during one translation",
+                        In.loc("JsRegexTranslator").ignore("AvoidStringBufferField"))
+                .because("it's the fluent api",
+                        In.locs("RamlLoaders", "RamlDefinition").ignore("TooManyMethods"))
+                .because("it's a single pass scanner over the url",
+                        In.loc("UriComponents").ignore("CyclomaticComplexity", "NPathComplexity", "ExcessiveParameterList"),
+                        In.loc("UriComponentsTest$RegexUriComponents").ignore("NPathComplexity"))
+                .because("its nested classes are public API and are counted into it",
+                        In.loc("Usage").ignore("GodClass"))
+                .because("it's a value type, parsing and matching media types belong together",
+                        In.loc("MediaType").ignore("GodClass"))
+                .because("it checks a value against every raml parameter type with the same violations and message",
+                        In.loc("ParameterChecker").ignore("GodClass"))
                 .because("TODO",                 //TODO
-                        In.locs("ParameterChecker", "Usage", "MediaType").ignore("GodClass"),
-                        In.locs("VariableMatcher", "MediaType").ignore("CyclomaticComplexity", "NPathComplexity"),
+                        In.locs("VariableMatcher", "MediaType", "ParameterChecker").ignore("CyclomaticComplexity", "NPathComplexity"),
                         In.loc("ContentNegotiationChecker").ignore("AvoidDeeplyNestedIfStmts"))
                 .because("They are snippets",
                         In.loc("guru.nidi.ramltester.snippets*").ignoreAll())
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.httpcomponents.RamlHttpAsyncClient;
+import guru.nidi.ramltester.util.ServerTest;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static guru.nidi.ramltester.util.TestUtils.violations;
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class HttpAsyncTest extends ServerTest {
+    private static final RamlDefinition definition = RamlLoaders.fromClasspath(HttpAsyncTest.class)
+            .load("httpCommons.raml")
+            .assumingBaseUri("http://nidi.guru/raml/v1");
+
+    @Test
+    public void asyncOk() throws IOException, InterruptedException, ExecutionException {
+        try (final RamlHttpAsyncClient client = definition.createHttpAsyncClient()) {
+            client.start();
+            final HttpContext context = new BasicHttpContext();
+            final HttpResponse response = client.execute(new HttpGet(url("base/data")), context, null).get();
+            assertEquals("\"json string\"", EntityUtils.toString(response.getEntity()));
+            assertTrue(RamlHttpAsyncClient.getReport(context).isEmpty());
+            assertTrue(client.getLastReport().isEmpty());
+        }
+    }
+
+    @Test
+    public void asyncNok() throws IOException, InterruptedException, ExecutionException {
+        try (final RamlHttpAsyncClient client = definition.createHttpAsyncClient()) {
+            client.start();
+            final HttpContext context = new BasicHttpContext();
+            final HttpResponse response = client.execute(new HttpGet(url("base/data?param=bu")), context, null).get();
+            assertEquals("illegal json", EntityUtils.toString(response.getEntity()));
+            assertEquals(violations("Query parameter 'param' on action(GET /base/data) is not defined"),
+                    RamlHttpAsyncClient.getReport(context).getRequestViolations());
+            assertEquals(1, RamlHttpAsyncClient.getReport(context).getResponseViolations().size());
+        }
+    }
+
+    @Test
+    public void notCheckedWhenTooLarge() throws IOException, InterruptedException, ExecutionException {
+        try (final RamlHttpAsyncClient client = definition.createHttpAsyncClient().capturingAtMost(5)) {
+            client.start();
+            final HttpContext context = new BasicHttpContext();
+            final HttpResponse response = client.execute(new HttpGet(url("base/data")), context, null).get();
+            assertEquals("\"json string\"", EntityUtils.toString(response.getEntity()));
+            assertNull(RamlHttpAsyncClient.getReport(context));
+        }
+    }
+
+    @Test
+    public void concurrent() throws IOException, InterruptedException, ExecutionException {
+        final MultiReportAggregator aggregator = new MultiReportAggregator();
+        try (final RamlHttpAsyncClient client = definition.createHttpAsyncClient().aggregating(aggregator)) {
+            client.start();
+            final List<Future<HttpResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                responses.add(client.execute(new HttpGet(url(i % 2 == 0 ? "base/data" : "base/data?param=" + i)), null));
+            }
+            for (final Future<HttpResponse> response : responses) {
+                assertEquals(200, response.get().getStatusLine().getStatusCode());
+            }
+        }
+        assertEquals(50, aggregator.getReports(definition).size());
+    }
+
+    @Override
+    protected void init(Context ctx) {
+        Tomcat.addServlet(ctx, "app", new TestServlet());
+        ctx.addServletMapping("/*", "app");
+    }
+}
@@ -15,6 +15,7 @@
  */
 package guru.nidi.ramltester;
 
+import guru.nidi.ramltester.jaxrs.CheckedResponse;
 import guru.nidi.ramltester.jaxrs.CheckingWebTarget;
 import guru.nidi.ramltester.jaxrs.JaxrsContextRamlRequest;
 import guru.nidi.ramltester.jaxrs.JaxrsContextRamlResponse;
@@ -36,10 +37,14 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.client.*;
+import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import static guru.nidi.ramltester.util.TestUtils.valuesOf;
 import static org.hamcrest.CoreMatchers.startsWith;
@@ -66,7 +71,7 @@ public class JaxrsTest extends ServerTest {
     public static List<Client> clients() {
         return Arrays.asList(
                 JerseyClientBuilder.createClient(),
-                new ResteasyClientBuilder().build());
+                new ResteasyClientBuilder().connectionPoolSize(20).build());
     }
 
     @Test
@@ -108,11 +113,68 @@ public class JaxrsTest extends ServerTest {
     public void client() {
         final CheckingWebTarget checking = raml.createWebTarget(client.target(baseUrlWithPort()));
         checking.path("/app/path").queryParam("qp", "true")
+                .request().header("h", "h2")
+                .post(Entity.entity("data", "text/plain")).close();
+        assertTrue(checking.getLastReport().isEmpty());
+    }
+
+    @Test
+    public void checkedWhenEntityIsRead() {
+        final CheckingWebTarget checking = raml.createWebTarget(client.target(baseUrlWithPort()));
+        final Response response = checking.path("/app/path").queryParam("qp", "true")
                 .request().header("h", "h2")
                 .post(Entity.entity("data", "text/plain"));
+        assertNull(checking.getLastReport());
+        assertEquals("\"json string\"", response.readEntity(String.class));
         assertTrue(checking.getLastReport().isEmpty());
     }
 
+    @Test
+    public void notCheckedWhenTooLarge() {
+        final CheckingWebTarget checking = raml.createWebTarget(client.target(baseUrlWithPort())).capturingAtMost(5);
+        final String s = checking.path("/app/path").queryParam("qp", "true")
+                .request().header("h", "h2")
+                .post(Entity.entity("data", "text/plain"), String.class);
+        assertEquals("\"json string\"", s);
+        assertNull(checking.getLastReport());
+    }
+
+    @Test
+    public void noStaleReport() {
+        final CheckingWebTarget checking = raml.createWebTarget(client.target(baseUrlWithPort()));
+        checking.path("/app/path").queryParam("qp", "true").request().header("h", "h2").post(Entity.entity("data", "text/plain")).close();
+        assertNotNull(checking.getLastReport());
+
+        final Response unread = checking.path("/app/path").queryParam("qp", "true")
+                .request().header("h", "h2")
+                .post(Entity.entity("data", "text/plain"));
+        assertNull(checking.getLastReport());
+        unread.close();
+
+        checking.capturingAtMost(5).path("/app/path").queryParam("qp", "true")
+                .request().header("h", "h2")
+                .post(Entity.entity("data", "text/plain"), String.class);
+        assertNull(checking.getLastReport());
+    }
+
+    @Test
+    public void async() throws InterruptedException, ExecutionException {
+        final CheckingWebTarget checking = raml.createWebTarget(client.target(baseUrlWithPort()));
+        final List<Future<CheckedResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final WebTarget target = checking.path("/app/path").queryParam("qp", "true");
+            final Invocation invocation = (i % 2 == 0 ? target : target.queryParam("other", i))
+                    .request().header("h", "h2")
+                    .buildPost(Entity.entity("data", "text/plain"));
+            responses.add(checking.submit(invocation, String.class));
+        }
+        for (int i = 0; i < 20; i++) {
+            final CheckedResponse<String> response = responses.get(i).get();
+            assertEquals("\"json string\"", response.getEntity());
+            assertEquals(i % 2, response.getReport().getRequestViolations().size());
+        }
+    }
+
     @Override
     protected void init(Context ctx) {
         Tomcat.addServlet(ctx, "app", new TestServlet());
@@ -15,11 +15,13 @@
  */
 package guru.nidi.ramltester;
 
+import guru.nidi.ramltester.core.RamlReport;
 import guru.nidi.ramltester.junit.ExpectedUsage;
 import org.junit.ClassRule;
 import org.junit.Test;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 /**
@@ -42,6 +44,14 @@ public class QueryParameterTest extends HighlevelTestBase {
         );
     }
 
+    @Test(timeout = 5000)
+    public void limitedCheckTime() throws Exception {
+        final RamlDefinition slow = RamlLoaders.fromClasspath(QueryParameterTest.class).load("timeout.raml").limitingCheckTime(100);
+        final RamlReport report = test(slow, get("/slow?q=aaaaaaaaaaaaaaaaaaaaaaaa!"), jsonResponse(200, "\"a \""));
+        assertOneRequestViolationThat(report, equalTo("Check of action(GET /slow) did not finish within 100 ms"));
+        assertTrue(report.isTruncated());
+    }
+
     @Test
     public void illegallyRepeatQueryParameter() throws Exception {
         assertOneRequestViolationThat(test(aggregator,
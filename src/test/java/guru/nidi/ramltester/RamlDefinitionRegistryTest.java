@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.spring.SpringMockRamlRequest;
+import org.junit.Test;
+import org.springframework.mock.web.MockServletContext;
+
+import static guru.nidi.ramltester.util.TestUtils.violations;
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ *
+ */
+public class RamlDefinitionRegistryTest {
+    private static final RamlLoaders RAML_LOADERS = RamlLoaders.fromClasspath(RamlDefinitionRegistryTest.class);
+    private static final RamlDefinition
+            simple = RAML_LOADERS.load("simple.raml"),
+            noBaseUri = RAML_LOADERS.load("noBaseUri.raml"),
+            uri = RAML_LOADERS.load("uri.raml");
+
+    private final MultiReportAggregator unmatched = new MultiReportAggregator();
+    private final RamlDefinitionRegistry registry = new RamlDefinitionRegistry()
+            .add(simple)
+            .add("http://nidi.guru/raml/v1/special", uri)
+            .add("http://{env}.nidi.guru/", noBaseUri)
+            .aggregatingUnmatched(unmatched);
+
+    @Test
+    public void find() {
+        assertSame(simple, registry.find("http://nidi.guru/raml/v2/data"));
+        assertSame(simple, registry.find("https://NIDI.guru/raml/v1?q=1"));
+        assertSame(uri, registry.find("http://nidi.guru/raml/v1/special/data"));
+        assertSame(simple, registry.find("http://nidi.guru/raml/v2/special/data"));
+        assertSame(noBaseUri, registry.find("http://test.nidi.guru/raml/v1"));
+        assertNull(registry.find("http://nidi.guru/other"));
+        assertNull(registry.find("http://localhost/raml/v1"));
+    }
+
+    @Test
+    public void port() {
+        final RamlDefinitionRegistry ports = new RamlDefinitionRegistry()
+                .add("http://localhost/api", simple)
+                .add("http://localhost:8080/api", uri)
+                .add("http://{env}.nidi.guru:8081/api", noBaseUri);
+        assertSame(simple, ports.find("http://localhost/api/data"));
+        assertSame(simple, ports.find("http://localhost:8081/api/data"));
+        assertSame(uri, ports.find("http://localhost:8080/api/data"));
+        assertSame(noBaseUri, ports.find("http://test.nidi.guru:8081/api"));
+        assertNull(ports.find("http://test.nidi.guru/api"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withoutBaseUri() {
+        new RamlDefinitionRegistry().add(noBaseUri);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicate() {
+        new RamlDefinitionRegistry().add("http://nidi.guru/api", simple).add("https://nidi.guru/api/", uri);
+    }
+
+    @Test
+    public void assumingBaseUri() {
+        final RamlDefinitionRegistry assuming = new RamlDefinitionRegistry()
+                .add(simple)
+                .assumingBaseUri("http://nidi.guru/raml/v1");
+        final SpringMockRamlRequest request = new SpringMockRamlRequest(get("/data").buildRequest(new MockServletContext()));
+        assertSame(simple.getRaml(), assuming.createTester().check(request).getRaml());
+    }
+
+    @Test
+    public void unmatched() {
+        final RamlReport report = registry.createTester().check(
+                new SpringMockRamlRequest(get("/raml/v1").buildRequest(new MockServletContext())));
+        assertEquals(violations("Request URL http://localhost/raml/v1 does not match the base URI of any registered raml"),
+                report.getRequestViolations());
+        assertEquals("Unmatched requests", report.getRaml().getTitle());
+        assertTrue(unmatched.reports().iterator().hasNext());
+    }
+}
@@ -17,11 +17,21 @@ package guru.nidi.ramltester;
 
 import guru.nidi.Base;
 import org.junit.Test;
+import org.raml.model.Raml;
+import org.raml.parser.loader.FileResourceLoader;
+import org.raml.parser.loader.ResourceLoader;
+import org.raml.parser.visitor.RamlDocumentBuilder;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static guru.nidi.ramltester.util.TestUtils.assumeEnv;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -92,6 +102,78 @@ public class RamlLoadersTest {
         assertTitle(loaders, "ramltester/simple.raml", "simple");
     }
 
+    @Test
+    public void sourceDirectories() {
+        final File dir = new File("target/test-classes/guru/nidi/ramltester").getAbsoluteFile();
+        assertEquals(Arrays.asList(dir), RamlLoaders.fromClasspath(RamlLoaders.class).getSourceDirectories("simple.raml"));
+        assertEquals(Arrays.asList(dir.getParentFile().getParentFile().getParentFile()),
+                RamlLoaders.fromClasspath().getSourceDirectories("guru/nidi/ramltester/simple.raml"));
+        assertEquals(Arrays.asList(new File("src")), RamlLoaders.fromFile("src").getSourceDirectories("simple.raml"));
+        assertEquals(Collections.<File>emptyList(), RamlLoaders.fromClasspath().getSourceDirectories("not/existing.raml"));
+    }
+
+    @Test
+    public void snapshot() throws IOException {
+        final File base = Files.createTempDirectory("raml").toFile();
+        final File snapshots = new File(base, "snapshots");
+        write(new File(base, "api.raml"), "#%RAML 0.8\ntitle: !include title.txt");
+        write(new File(base, "title.txt"), "first");
+        final RamlLoaders loaders = RamlLoaders.fromFile(base).snapshotsIn(snapshots);
+        assertTitle(loaders, "api.raml", "first");
+        assertEquals(1, snapshots.list().length);
+        assertTitle(loaders, "api.raml", "first");
+
+        write(new File(base, "title.txt"), "second");
+        assertTitle(loaders, "api.raml", "second");
+        assertTitle(RamlLoaders.fromFile(base), "api.raml", "second");
+        assertEquals(1, snapshots.list().length);
+    }
+
+    @Test
+    public void snapshotIsReused() throws IOException {
+        final File base = Files.createTempDirectory("raml").toFile();
+        final File snapshots = new File(base, "snapshots");
+        write(new File(base, "api.raml"), "#%RAML 0.8\ntitle: !include title.txt");
+        write(new File(base, "title.txt"), "first");
+        final FileResourceLoader resourceLoader = new FileResourceLoader(base);
+        final AtomicInteger parses = new AtomicInteger();
+        final RamlSnapshots.Parser parser = new RamlSnapshots.Parser() {
+            @Override
+            public Raml parse(ResourceLoader loader) {
+                parses.incrementAndGet();
+                return new RamlDocumentBuilder(loader).build("api.raml");
+            }
+        };
+        assertEquals("first", new RamlSnapshots(snapshots).load("test", "api.raml", "file", resourceLoader, parser).getTitle());
+        assertEquals("first", new RamlSnapshots(snapshots).load("test", "api.raml", "file", resourceLoader, parser).getTitle());
+        assertEquals(1, parses.get());
+
+        write(new File(base, "title.txt"), "second");
+        assertEquals("second", new RamlSnapshots(snapshots).load("test", "api.raml", "file", resourceLoader, parser).getTitle());
+        assertEquals("second", new RamlSnapshots(snapshots).load("test", "api.raml", "file", resourceLoader, parser).getTitle());
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    public void snapshotPerLoader() throws IOException {
+        final File base = Files.createTempDirectory("raml").toFile();
+        final File snapshots = new File(base, "snapshots");
+        final File a = new File(base, "a");
+        final File b = new File(base, "b");
+        assertTrue(a.mkdir());
+        assertTrue(b.mkdir());
+        write(new File(a, "api.raml"), "#%RAML 0.8\ntitle: a");
+        write(new File(b, "api.raml"), "#%RAML 0.8\ntitle: b");
+        assertTitle(RamlLoaders.fromFile(a).snapshotsIn(snapshots), "api.raml", "a");
+        assertTitle(RamlLoaders.fromFile(b).snapshotsIn(snapshots), "api.raml", "b");
+        assertTitle(RamlLoaders.fromFile(a).snapshotsIn(snapshots), "api.raml", "a");
+        assertEquals(2, snapshots.list().length);
+    }
+
+    private void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
     private void assertTitle(RamlLoaders loaders, String raml, String expected) {
         assertEquals(expected, loaders.load(raml).getRaml().getTitle());
     }
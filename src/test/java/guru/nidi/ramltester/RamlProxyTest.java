@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.proxy.RamlProxy;
+import guru.nidi.ramltester.util.ServerTest;
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.BindException;
+
+import static guru.nidi.ramltester.util.TestUtils.violations;
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class RamlProxyTest extends ServerTest {
+    private static final RamlDefinition definition = RamlLoaders.fromClasspath(RamlProxyTest.class)
+            .load("httpCommons.raml")
+            .assumingBaseUri("http://nidi.guru/raml/v1");
+
+    @Test
+    public void proxy() throws IOException {
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        final RamlProxy proxy = definition.startProxy(0, baseUrlWithPort(), aggregator);
+        try (final CloseableHttpClient client = HttpClients.createDefault()) {
+            final String proxyUrl = "http://localhost:" + proxy.getPort() + "/base/data";
+            final HttpResponse ok = client.execute(new HttpGet(proxyUrl));
+            assertEquals("\"json string\"", EntityUtils.toString(ok.getEntity()));
+            final HttpResponse nok = client.execute(new HttpGet(proxyUrl + "?param=bu"));
+            assertEquals("illegal json", EntityUtils.toString(nok.getEntity()));
+            final HttpResponse empty = client.execute(new HttpGet(proxyUrl + "?empty"));
+            assertEquals(204, empty.getStatusLine().getStatusCode());
+        } finally {
+            proxy.close();
+        }
+        assertEquals(3, proxy.getChecked());
+        assertEquals(1, proxy.getViolations());
+        assertEquals(0, proxy.getDropped());
+        assertEquals(3, aggregator.getReports().size());
+        for (final RamlReport report : aggregator.getReports()) {
+            if (!report.isEmpty()) {
+                assertEquals(violations("Query parameter 'param' on action(GET /base/data) is not defined"),
+                        report.getRequestViolations());
+            }
+        }
+    }
+
+    @Test
+    public void notCheckedWhenTooLarge() throws IOException {
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        final RamlProxy proxy = definition.startProxy(0, baseUrlWithPort(), aggregator).capturingAtMost(5);
+        try (final CloseableHttpClient client = HttpClients.createDefault()) {
+            final String proxyUrl = "http://localhost:" + proxy.getPort() + "/base/data";
+            assertEquals("\"json string\"", EntityUtils.toString(client.execute(new HttpGet(proxyUrl)).getEntity()));
+            assertEquals(204, client.execute(new HttpGet(proxyUrl + "?empty")).getStatusLine().getStatusCode());
+        } finally {
+            proxy.close();
+        }
+        assertEquals(1, proxy.getChecked());
+        assertEquals(1, proxy.getTooLarge());
+    }
+
+    @Test
+    public void failingCheckDoesNotStopChecking() throws IOException {
+        final RamlDefinition invalidPattern = RamlLoaders.fromClasspath(RamlProxyTest.class).load("invalid-pattern.raml")
+                .assumingBaseUri("http://nidi.guru/raml/v1");
+        final RamlProxy proxy = invalidPattern.startProxy(0, baseUrlWithPort(), new SimpleReportAggregator());
+        try (final CloseableHttpClient client = HttpClients.createDefault()) {
+            final String proxyUrl = "http://localhost:" + proxy.getPort() + "/data";
+            EntityUtils.consume(client.execute(new HttpGet(proxyUrl + "?q=1")).getEntity());
+            EntityUtils.consume(client.execute(new HttpGet(proxyUrl)).getEntity());
+        } finally {
+            proxy.close();
+        }
+        assertEquals(1, proxy.getChecked());
+        assertEquals(0, proxy.getDropped());
+    }
+
+    @Test
+    public void portInUse() throws IOException {
+        try (final RamlProxy proxy = definition.startProxy(0, baseUrlWithPort(), new SimpleReportAggregator())) {
+            try {
+                definition.startProxy(proxy.getPort(), baseUrlWithPort(), new SimpleReportAggregator());
+                fail("Port in use not detected");
+            } catch (BindException e) {
+                //expected
+            }
+        }
+    }
+
+    @Override
+    protected void init(Context ctx) {
+        Tomcat.addServlet(ctx, "app", new TestServlet());
+        ctx.addServletMapping("/*", "app");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.proxy.RamlStubServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class RamlStubServerTest {
+    private static final RamlDefinition simple = RamlLoaders.fromClasspath(RamlStubServerTest.class).load("simple.raml");
+
+    @Test
+    public void examples() throws IOException {
+        try (final RamlStubServer server = simple.startStubServer(0);
+             final CloseableHttpClient client = HttpClients.createDefault()) {
+            final String base = "http://localhost:" + server.getPort() + "/raml/v1";
+            final HttpResponse data = client.execute(new HttpGet(base + "/data"));
+            assertEquals(200, data.getStatusLine().getStatusCode());
+            assertEquals("abc/xyz+json", data.getFirstHeader("Content-Type").getValue());
+            assertEquals("42", EntityUtils.toString(data.getEntity()).trim());
+
+            final HttpResponse d = client.execute(new HttpGet(base + "/d"));
+            assertEquals(200, d.getStatusLine().getStatusCode());
+            assertEquals(0, d.getEntity().getContentLength());
+
+            final HttpResponse undefined = client.execute(new HttpGet(base + "/undefined"));
+            assertEquals(404, undefined.getStatusLine().getStatusCode());
+
+            final HttpResponse post = client.execute(new HttpPost(base + "/data"));
+            assertEquals(405, post.getStatusLine().getStatusCode());
+            assertEquals("GET", post.getFirstHeader("Allow").getValue());
+        }
+    }
+
+    @Test
+    public void checkRequests() throws IOException {
+        final SimpleReportAggregator aggregator = new SimpleReportAggregator();
+        try (final RamlStubServer server = simple.assumingBaseUri("http://nidi.guru/raml/v1").startStubServer(0, aggregator);
+             final CloseableHttpClient client = HttpClients.createDefault()) {
+            final String base = "http://localhost:" + server.getPort() + "/raml/v1";
+            EntityUtils.consume(client.execute(new HttpGet(base + "/data")).getEntity());
+            EntityUtils.consume(client.execute(new HttpGet(base + "/undefined")).getEntity());
+        }
+        assertEquals(2, aggregator.getReports().size());
+        assertTrue(aggregator.getReports().get(0).isEmpty());
+        assertEquals("[Resource '/undefined' is not defined]", aggregator.getReports().get(1).getRequestViolations().toString());
+    }
+
+    @Test
+    public void connectionsBeyondLimitWait() throws IOException {
+        try (final RamlStubServer server = simple.startStubServer(0, null, 1);
+             final CloseableHttpClient client1 = HttpClients.createDefault();
+             final CloseableHttpClient client2 = HttpClients.createDefault()) {
+            final String url = "http://localhost:" + server.getPort() + "/raml/v1/data";
+            final long start = System.currentTimeMillis();
+            for (int i = 0; i < 3; i++) {
+                assertEquals("42", EntityUtils.toString(client1.execute(new HttpGet(url)).getEntity()).trim());
+                assertEquals("42", EntityUtils.toString(client2.execute(new HttpGet(url)).getEntity()).trim());
+            }
+            assertTrue("Idle connection was not given up", System.currentTimeMillis() - start < 5000);
+        }
+    }
+}
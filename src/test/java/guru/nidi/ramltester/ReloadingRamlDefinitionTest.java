@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester;
+
+import guru.nidi.ramltester.core.RamlChecker;
+import guru.nidi.ramltester.model.RamlRequest;
+import guru.nidi.ramltester.spring.SpringMockRamlRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockServletContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ *
+ */
+public class ReloadingRamlDefinitionTest {
+    private File base;
+
+    @Before
+    public void setUp() throws IOException {
+        base = Files.createTempDirectory("raml").toFile();
+        write("#%RAML 0.8\ntitle: first\n/data:\n  get:");
+    }
+
+    @Test
+    public void reload() throws IOException {
+        try (final ReloadingRamlDefinition reloading = new ReloadingRamlDefinition(RamlLoaders.fromFile(base), "api.raml")) {
+            final RamlDefinition first = reloading.getDefinition();
+            assertEquals("first", first.getRaml().getTitle());
+
+            write("#%RAML 0.8\ntitle: second\n/data:\n  get:");
+            assertTrue(reloading.reload());
+            assertEquals("second", reloading.getDefinition().getRaml().getTitle());
+            assertEquals("first", first.getRaml().getTitle());
+
+            write("#%RAML 0.8\ntitle: [");
+            assertFalse(reloading.reload());
+            assertEquals("second", reloading.getDefinition().getRaml().getTitle());
+        }
+    }
+
+    @Test
+    public void watch() throws IOException, InterruptedException {
+        final CountDownLatch reloaded = new CountDownLatch(1);
+        try (final ReloadingRamlDefinition reloading = new ReloadingRamlDefinition(RamlLoaders.fromFile(base), "api.raml")) {
+            reloading.addListener(new RamlReloadListener() {
+                @Override
+                public void reloaded(RamlDefinition definition, long millis) {
+                    reloaded.countDown();
+                }
+
+                @Override
+                public void reloadFailed(RuntimeException cause, long millis) {
+                    //the raml is valid
+                }
+            });
+            final RamlChecker checker = reloading.createTester();
+            assertTrue(checker.check(request("/data")).isEmpty());
+            assertFalse(checker.check(request("/other")).isEmpty());
+
+            write("#%RAML 0.8\ntitle: second\n/other:\n  get:");
+            assertTrue(reloaded.await(10, TimeUnit.SECONDS));
+            assertEquals("second", reloading.getDefinition().getRaml().getTitle());
+            assertFalse(checker.check(request("/data")).isEmpty());
+            assertTrue(checker.check(request("/other")).isEmpty());
+        }
+    }
+
+    @Test
+    public void concurrentChecks() throws InterruptedException {
+        try (final ReloadingRamlDefinition reloading = new ReloadingRamlDefinition(RamlLoaders.fromFile(base), "api.raml")) {
+            final RamlChecker checker = reloading.createTester();
+            final AtomicInteger wrong = new AtomicInteger();
+            final ExecutorService executor = Executors.newFixedThreadPool(4);
+            for (int i = 0; i < 20000; i++) {
+                final boolean valid = i % 2 == 0;
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (checker.check(request(valid ? "/data" : "/other")).isEmpty() != valid) {
+                            wrong.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, wrong.get());
+        }
+    }
+
+    private RamlRequest request(String path) {
+        return new SpringMockRamlRequest(get(path).buildRequest(new MockServletContext()));
+    }
+
+    private void write(String raml) throws IOException {
+        Files.write(new File(base, "api.raml").toPath(), raml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -17,12 +17,12 @@ package guru.nidi.ramltester;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import guru.nidi.ramltester.core.JsonSchemaViolationCause;
-import guru.nidi.ramltester.core.RamlReport;
-import guru.nidi.ramltester.core.RamlViolationMessage;
-import guru.nidi.ramltester.core.XmlSchemaViolationCause;
+import guru.nidi.ramltester.core.*;
+import guru.nidi.ramltester.util.Message;
+import guru.nidi.ramltester.validator.JsonSchemaValidator;
 import org.junit.Test;
 
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 import java.util.Locale;
@@ -30,8 +30,7 @@ import java.util.Map;
 
 import static guru.nidi.ramltester.util.TestUtils.map;
 import static org.hamcrest.CoreMatchers.*;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertThat;
+import static org.junit.Assert.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
 /**
@@ -53,6 +52,51 @@ public class SchemaTest extends HighlevelTestBase {
                 containsString("error: instance type (object) does not match any allowed primitive type (allowed: [\"string\"])")));
     }
 
+    @Test
+    public void tooLargeBodyNotValidated() throws UnsupportedEncodingException {
+        final RamlReport tooLarge = test(simple.limitingBodySize(10), get("/schema"), jsonResponse(200, "{\"s\":{},\"i\":true}"));
+        assertNoViolations(tooLarge);
+        assertEquals(Arrays.asList("Body of 17 bytes on action(GET /schema) response(200) mime-type('application/json') is larger than the limit of 10 bytes, it is not checked against the schema"),
+                tooLarge.getNotices());
+        assertOneResponseViolationThat(simple.limitingBodySize(17), get("/schema"), jsonResponse(200, "{\"s\":{},\"i\":true}"),
+                containsString("does not match any allowed primitive type"));
+        assertNoViolations(simple.limitingBodySize(18), get("/schema"), jsonResponse(200, "{\"s\":\"str\",\"i\":42}"));
+    }
+
+    @Test(timeout = 5000)
+    public void limitedCheckTime() throws UnsupportedEncodingException {
+        final RamlDefinition slow = RamlLoaders.fromClasspath(getClass()).load("timeout.raml").limitingCheckTime(100);
+        final RamlReport report = test(slow, get("/slow"), jsonResponse(200, "\"aaaaaaaaaaaaaaaaaaaaaaaa!\""));
+        assertOneResponseViolationThat(report, equalTo("Check of action(GET /slow) response(200) mime-type('application/json') did not finish within 100 ms"));
+        assertTrue(report.isTruncated());
+    }
+
+    @Test
+    public void skippedPhases() throws UnsupportedEncodingException {
+        assertNoViolations(simple.checkingOnly(CheckPhase.PARAMETER), get("/schema"), jsonResponse(200, "{\"s\":{},\"i\":true}"));
+        assertNoViolations(simple.checkingOnly(CheckPhase.BODY_SCHEMA), get("/schema?undefined=1"), jsonResponse(200, "{\"s\":\"str\",\"i\":42}"));
+        assertOneRequestViolationThat(simple.checkingOnly(CheckPhase.PARAMETER), get("/schema?undefined=1"), jsonResponse(200, "{\"s\":{},\"i\":true}"),
+                equalTo("Query parameter 'undefined' on action(GET /schema) is not defined"));
+    }
+
+    @Test
+    public void limitedViolations() throws UnsupportedEncodingException {
+        final RamlReport report = test(simple.limitingViolations(1), get("/schema?a=1&b=2&c=3"), jsonResponse(200, "{\"s\":\"str\",\"i\":42}"));
+        assertEquals(2, report.getRequestViolations().size());
+        assertEquals("And 2 more violations", report.getRequestViolations().asList().get(1).getMessage());
+    }
+
+    @Test
+    public void limitedSchemaMessages() {
+        final RamlViolations violations = new RamlViolations();
+        new JsonSchemaValidator().limitingMessages(1).validate(
+                new StringReader("{\"s\":{},\"i\":true}"),
+                new StringReader("{\"type\":\"object\",\"properties\":{\"s\":{\"type\":\"string\"},\"i\":{\"type\":\"integer\"}}}"),
+                violations, new Message("schema.body.mismatch", "body", "content"));
+        assertEquals(1, violations.size());
+        assertThat(violations.asList().get(0).getMessage(), endsWith("\n- and 1 more\n"));
+    }
+
     @Test
     public void matchingXmlSchema() throws UnsupportedEncodingException {
         assertNoViolations(simple, get("/schema"), response(208, "<api-request><input>str</input></api-request>", "text/xml"));
@@ -18,6 +18,7 @@ package guru.nidi.ramltester;
 import guru.nidi.ramltester.core.RamlReport;
 import org.junit.Test;
 
+import static guru.nidi.ramltester.core.CheckPhase.*;
 import static org.hamcrest.CoreMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -142,6 +143,22 @@ public class SecurityTest extends HighlevelTestBase {
                 response(200, "", null)));
     }
 
+    @Test
+    public void securityElementsWithoutSecurityPhase() throws Exception {
+        assertNoViolations(test(
+                global.checkingOnly(PARAMETER, HEADER, FORM, BODY_SCHEMA, CONTENT_NEGOTIATION),
+                get("/sec2?access_token=bla").header("Authorization2", "blu"),
+                response(401, "", null)));
+    }
+
+    @Test
+    public void undefinedSecuritySchemaWithoutSecurityPhase() throws Exception {
+        assertNoViolations(test(
+                undef.checkingOnly(PARAMETER, HEADER, FORM, BODY_SCHEMA, CONTENT_NEGOTIATION),
+                get("/unsec"),
+                response(200, "", null)));
+    }
+
     @Test
     public void undefinedGlobalSecuritySchema() throws Exception {
         assertOneRequestViolationThat(test(
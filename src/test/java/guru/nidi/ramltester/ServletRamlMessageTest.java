@@ -55,6 +55,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPOutputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 /**
@@ -108,6 +109,19 @@ public class ServletRamlMessageTest extends ServerTest {
         });
     }
 
+    @Test
+    public void responseHeadersUpdated() throws Exception {
+        execute(new HttpGet(url("test/more")), new MessageTester() {
+            @Override
+            public void test(HttpServletRequest servletRequest, HttpServletResponse servletResponse, RamlRequest ramlRequest, RamlResponse ramlResponse) {
+                final Values headers = ramlResponse.getHeaderValues();
+                assertSame(headers, ramlResponse.getHeaderValues());
+                ((HttpServletResponse) ramlResponse).addHeader("resHeader", "more");
+                assertEquals(new Values().addValue("resHeader", "hula").addValue("resHeader", "more"), ramlResponse.getHeaderValues());
+            }
+        });
+    }
+
     @Test
     public void content() throws Exception {
         final HttpPost post = new HttpPost(url("test/more"));
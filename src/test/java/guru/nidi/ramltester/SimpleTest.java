@@ -15,7 +15,10 @@
  */
 package guru.nidi.ramltester;
 
+import guru.nidi.ramltester.core.CheckerConfig;
+import guru.nidi.ramltester.core.RamlReport;
 import guru.nidi.ramltester.core.RamlViolationException;
+import guru.nidi.ramltester.core.RequestCache;
 import guru.nidi.ramltester.junit.ExpectedUsage;
 import guru.nidi.ramltester.spring.SpringMockRamlRequest;
 import guru.nidi.ramltester.spring.SpringMockRamlResponse;
@@ -153,4 +156,56 @@ public class SimpleTest extends HighlevelTestBase {
             assertTrue(e.getReport().getValidationViolations().isEmpty());
         }
     }
+
+    @Test
+    public void failFastStopsAtFirstViolation() throws Exception {
+        try {
+            test(simple.failFast(), get("/schema?undefined=1"), jsonResponse(200, "{\"s\":{},\"i\":true}"));
+            fail("Should throw exception");
+        } catch (RamlViolationException e) {
+            assertEquals(violations("Query parameter 'undefined' on action(GET /schema) is not defined"),
+                    e.getReport().getRequestViolations());
+            assertTrue(e.getReport().getResponseViolations().isEmpty());
+            assertTrue(e.getReport().isTruncated());
+        }
+    }
+
+    @Test
+    public void cachedRequestOnlyChecksResponse() throws Exception {
+        final RamlDefinition cached = simple.assumingBaseUri("http://nidi.guru/raml/v1").cachingRequests(10, "X-Request-Id");
+        final RamlReport first = cached.testAgainst(
+                new SpringMockRamlRequest(get("/schema?undefined=1").header("X-Request-Id", "1").buildRequest(new MockServletContext())),
+                new SpringMockRamlResponse(jsonResponse(200, "{\"s\":{},\"i\":true}")));
+        final RamlReport second = cached.testAgainst(
+                new SpringMockRamlRequest(get("/schema?undefined=1").header("X-Request-Id", "2").buildRequest(new MockServletContext())),
+                new SpringMockRamlResponse(jsonResponse(200, "{\"s\":\"a\",\"i\":1}")));
+
+        final RequestCache cache = cached.getConfig().requestCache;
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+        assertEquals(first.getRequestViolations(), second.getRequestViolations());
+        assertFalse(first.getResponseViolations().isEmpty());
+        assertTrue(second.getResponseViolations().isEmpty());
+    }
+
+    @Test
+    public void cachedRequestKeepsHeaderCase() throws Exception {
+        final RamlDefinition cached = simple.assumingBaseUri("http://nidi.guru/raml/v1").cachingRequests(10);
+        final RamlReport upper = cached.testAgainst(
+                new SpringMockRamlRequest(get("/schema").header("X-Undefined", "1").buildRequest(new MockServletContext())),
+                new SpringMockRamlResponse(jsonResponse(200, "{\"s\":\"a\",\"i\":1}")));
+        final RamlReport lower = cached.testAgainst(
+                new SpringMockRamlRequest(get("/schema").header("x-undefined", "1").buildRequest(new MockServletContext())),
+                new SpringMockRamlResponse(jsonResponse(200, "{\"s\":\"a\",\"i\":1}")));
+
+        assertEquals(2, cached.getConfig().requestCache.getMisses());
+        assertEquals(violations("Header 'X-Undefined' on action(GET /schema) is not defined"), upper.getRequestViolations());
+        assertEquals(violations("Header 'x-undefined' on action(GET /schema) is not defined"), lower.getRequestViolations());
+    }
+
+    @Test
+    public void newRamlEmptiesCache() {
+        final CheckerConfig config = simple.cachingRequests(10).getConfig();
+        assertNotSame(config.requestCache, config.withRaml(config.raml, config.schemaValidators).requestCache);
+    }
 }
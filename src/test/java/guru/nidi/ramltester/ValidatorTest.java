@@ -16,11 +16,16 @@
 package guru.nidi.ramltester;
 
 import guru.nidi.ramltester.core.RamlReport;
+import guru.nidi.ramltester.core.RamlValidationCache;
 import org.junit.Test;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static guru.nidi.ramltester.core.Validation.*;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.Assert.assertEquals;
 
 /**
  *
@@ -48,6 +53,38 @@ public class ValidatorTest extends HighlevelTestBase {
                         "Messages:\n- error: instance type (integer) does not match any allowed primitive type (allowed: [\"string\"])"));
     }
 
+    @Test
+    public void parallel() {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (final RamlDefinition raml : new RamlDefinition[]{example, uriParams, description, noDocTitle, noDocContent}) {
+                assertEquals(raml.validate().getValidationViolations().toString(), raml.validate(executor).getValidationViolations().toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void incremental() {
+        final RamlDefinition raml = RAML_LOADERS.load("description.raml");
+        final RamlValidationCache cache = new RamlValidationCache();
+        final String all = raml.validate().getValidationViolations().toString();
+        assertEquals(all, raml.validate(cache).getValidationViolations().toString());
+        final int parts = cache.getValidated();
+
+        assertEquals(all, raml.validate(cache).getValidationViolations().toString());
+        assertEquals(0, cache.getValidated());
+
+        raml.getRaml().getResources().values().iterator().next().setDescription("changed");
+        assertEquals(raml.validate().getValidationViolations().toString(), raml.validate(cache).getValidationViolations().toString());
+        assertEquals(1, cache.getValidated());
+
+        assertEquals(description.validator().withChecks(EMPTY).validate().getValidationViolations().toString(),
+                description.validator().withChecks(EMPTY).validate(cache).getValidationViolations().toString());
+        assertEquals(parts, cache.getValidated());
+    }
+
     @Test
     public void parameter() {
         final RamlReport report = example.validator().withChecks(PARAMETER).validate();
@@ -17,8 +17,7 @@ package guru.nidi.ramltester.core;
 
 import org.junit.Test;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -49,4 +48,50 @@ public class JsRegexTest {
     public void invalidModifier() {
         JsRegex.matches("", "^[a-z]", "yxz");
     }
+
+    @Test
+    public void withDeadline() {
+        assertTrue(JsRegex.matchesWithin("A/b", "/a\\/b/i", Deadline.after(1000)));
+        assertFalse(JsRegex.matches("1a", "^[a-z]", null, Deadline.after(1000)));
+    }
+
+    @Test
+    public void javaEvaluationHasJsSemantics() {
+        final String[] regexes = {"^a$", "^.$", "a.c", "^[a-z]+$", "^[^a-z]$", "^\\w+\\d?$", "^a{2,3}$", "^(?:ab|cd)+?$", "^a(?=b)", "[\\]-]", "^\\u00e4$", "a}"};
+        final String[] inputs = {"a", "a\n", "\u2028", "\u0085", "abc", "a\u0085c", "AB", "\u00e4", "\u00c4", "aaa", "abcd", "]", "-", "a}", "\ud83d\ude00", ""};
+        for (final String regex : regexes) {
+            for (final String flags : new String[]{null, "i"}) {
+                for (final String input : inputs) {
+                    assertEquals(regex + " " + flags + " on '" + input + "'",
+                            JsRegex.matches(input, regex, flags, Deadline.NONE), JsRegex.matches(input, regex, flags, Deadline.after(1000)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void translateOnlyEquivalentRegexes() {
+        assertEquals("^[^\\n\\r\\u2028\\u2029]\\z", JsRegexTranslator.toJava("^.$", null));
+        assertEquals("[a\\&\\&b]", JsRegexTranslator.toJava("[a&&b]", null));
+        assertNull(JsRegexTranslator.toJava("^a$", "m"));
+        assertNull(JsRegexTranslator.toJava("\\s", null));
+        assertNull(JsRegexTranslator.toJava("\\bx", null));
+        assertNull(JsRegexTranslator.toJava("(a)\\1", null));
+        assertNull(JsRegexTranslator.toJava("[]", null));
+        assertNull(JsRegexTranslator.toJava("[[a]]", null));
+        assertNull(JsRegexTranslator.toJava("a*+", null));
+        assertNull(JsRegexTranslator.toJava("(?<n>a)", null));
+        assertNull(JsRegexTranslator.toJava("\u00e4", "i"));
+        assertNull(JsRegexTranslator.toJava("[\\d-z]", null));
+    }
+
+    @Test(expected = ValidationTimeoutException.class)
+    public void catastrophicBacktracking() {
+        JsRegex.matches("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa!", "^((a+)*)+$", null, Deadline.after(50));
+    }
+
+    @Test(expected = ValidationTimeoutException.class, timeout = 5000)
+    public void catastrophicBacktrackingInJs() {
+        JsRegex.matches("aaaaaaaaaaaaaaaaaaaaaaaa!", "^(a+)+\\s$", null, Deadline.after(50));
+    }
 }
@@ -28,9 +28,12 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import static guru.nidi.ramltester.util.TestUtils.valuesOf;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertEquals;
 
 /**
  *
@@ -79,6 +82,43 @@ public class ParameterCheckerTest extends CoreTestBase {
         }
         assertOneViolationThat(p, "-6", equalTo("BaseUri parameter 'xxx' on action - Value '-6' is smaller than minimum -5"));
         assertOneViolationThat(p, "667", equalTo("BaseUri parameter 'xxx' on action - Value '667' is bigger than maximum 666"));
+
+        p.setMinimum(new BigDecimal("1.5"));
+        p.setMaximum(new BigDecimal("1E+3"));
+        assertNoViolation(p, "2");
+        assertNoViolation(p, "1000");
+        assertOneViolationThat(p, "1", equalTo("BaseUri parameter 'xxx' on action - Value '1' is smaller than minimum 1.5"));
+        assertOneViolationThat(p, "1001", equalTo("BaseUri parameter 'xxx' on action - Value '1001' is bigger than maximum 1,000"));
+    }
+
+    @Test
+    public void hugeLimitedIntegerType() {
+        final QueryParameter p = new QueryParameter();
+        p.setType(ParamType.INTEGER);
+        p.setMaximum(new BigDecimal("9223372036854775807"));
+        for (final String value : new String[]{"999999999999999999", "-9223372036854775809", "9223372036854775807"}) {
+            assertNoViolation(p, value);
+        }
+        assertOneViolationThat(p, "9223372036854775808",
+                equalTo("BaseUri parameter 'xxx' on action - Value '9223372036854775808' is bigger than maximum 9,223,372,036,854,775,807"));
+    }
+
+    @Test
+    public void numberSyntaxEquivalentToRegex() {
+        final Pattern integer = Pattern.compile("0|-?[1-9][0-9]*");
+        final Pattern number = Pattern.compile("0|inf|-inf|nan|-?(((0?|[1-9][0-9]*)\\.[0-9]*[1-9])|([1-9][0-9]*))(e[-+]?[1-9][0-9]*)?");
+        final String alphabet = "0019-+.eEinfa ";
+        final Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            final StringBuilder s = new StringBuilder();
+            final int len = random.nextInt(9);
+            for (int j = 0; j < len; j++) {
+                s.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            final String value = s.toString();
+            assertEquals(value, integer.matcher(value).matches(), ParameterChecker.isInteger(value));
+            assertEquals(value, number.matcher(value).matches(), ParameterChecker.isNumber(value));
+        }
     }
 
     @Test
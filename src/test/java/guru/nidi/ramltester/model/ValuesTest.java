@@ -96,4 +96,18 @@ public class ValuesTest {
         assertEquals(Arrays.asList("1", "2"), map.get("b"));
     }
 
+    @Test
+    public void headers() {
+        final Values headers = new HeaderValuesBuilder().add("Accept", "a").add("ACCEPT", "b").add("Host", "h").build();
+        assertEquals(2, headers.size());
+        assertEquals(Arrays.asList("a", "b"), headers.get("accept"));
+        assertEquals(Arrays.asList("h"), headers.get("HOST"));
+        assertEquals(new HashSet<>(Arrays.asList("Accept", "Host")), headers.names());
+        assertEquals(new Values().addValue("Accept", "a").addValue("Accept", "b").addValue("Host", "h"), headers);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void headersAreReadOnly() {
+        new HeaderValuesBuilder().add("Accept", "a").build().addValue("Accept", "b");
+    }
 }
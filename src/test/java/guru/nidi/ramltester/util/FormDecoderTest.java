@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import guru.nidi.ramltester.model.Values;
+import guru.nidi.ramltester.offline.RecordedRequest;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+
+import static guru.nidi.ramltester.util.TestUtils.valuesOf;
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ */
+public class FormDecoderTest {
+    @Test
+    public void plus() {
+        assertEquals(valuesOf("a b", "c d+e"), decode("a+b=c+d%2Be", null));
+    }
+
+    @Test
+    public void emptyAndMissingValues() {
+        assertEquals(valuesOf("a", "", "c", "1").addValue("b", null), decode("a=&b&&c=1", null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalEscape() {
+        decode("a=%zz", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedEscape() {
+        decode("a=%4", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedEscapeInName() {
+        decode("a%=1", null);
+    }
+
+    @Test
+    public void multibyteUtf8() {
+        assertEquals(valuesOf("ä", "€ü"), decode("%C3%A4=%E2%82%AC%C3%BC", "utf-8"));
+    }
+
+    @Test
+    public void nonUtf8Charset() {
+        assertEquals(valuesOf("ä", "ü"), decode("%E4=%FC", null));
+        assertEquals(valuesOf("ä", "ü"), decode("%E4=%FC", "iso-8859-1"));
+    }
+
+    @Test
+    public void charsetWithoutAsciiSeparators() {
+        final Charset utf16 = Charset.forName("utf-16");
+        assertEquals(valuesOf("a b", "ä", "c", "1"), decode("a+b=%00%E4&c=1".getBytes(utf16), "utf-16"));
+    }
+
+    @Test
+    public void unsupportedContentType() {
+        assertEquals(new Values(), new FormDecoder().decode(
+                new RecordedRequest("POST", "http://host/path", valuesOf("Content-Type", "text/plain"), "a=1".getBytes())));
+    }
+
+    private Values decode(String content, String charset) {
+        return decode(content.getBytes(Charset.forName("iso-8859-1")), charset);
+    }
+
+    private Values decode(byte[] content, String charset) {
+        final String contentType = "application/x-www-form-urlencoded" + (charset == null ? "" : "; charset=" + charset);
+        return new FormDecoder().decode(new RecordedRequest("POST", "http://host/path", valuesOf("Content-Type", contentType), content));
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class SavingInputStreamTest {
+    @Test
+    public void savesWhatIsReadAndSkipped() throws IOException {
+        final SavingInputStream in = new SavingInputStream(new ByteArrayInputStream("abcdef".getBytes("utf-8")), 4);
+        assertEquals('a', in.read());
+        assertEquals(2, in.skip(2));
+        assertEquals(0, in.skip(0));
+        assertEquals(0, in.skip(-1));
+        assertEquals('d', in.read());
+        assertArrayEquals("abcd".getBytes("utf-8"), in.getSaved());
+        assertFalse(in.isTruncated());
+        assertEquals('e', in.read());
+        assertTrue(in.isTruncated());
+    }
+}
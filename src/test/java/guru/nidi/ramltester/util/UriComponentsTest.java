@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2014 Stefan Niederhauser (nidin@gmx.ch)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package guru.nidi.ramltester.util;
+
+import guru.nidi.ramltester.model.Values;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static guru.nidi.ramltester.util.TestUtils.valuesOf;
+import static org.junit.Assert.*;
+
+/**
+ *
+ */
+public class UriComponentsTest {
+    private static final String[] PREFIXES = {"", "http:", "http://", "HTTPS://", "hTTp://", "https:/", "ftp://", "http://u:p@", "http://["};
+    private static final String ALPHABET = "hHtTpPsS:/@[]?#&=%.019aAfFgzZ \n\u2028+";
+
+    @Test
+    public void simple() {
+        final UriComponents uri = UriComponents.fromHttpUrl("HTTPS://user:pw@nidi.guru:8080/raml/v1?a=1&b&c=&a=2");
+        assertEquals("https", uri.getScheme());
+        assertEquals("user:pw", uri.getUserInfo());
+        assertEquals("nidi.guru", uri.getHost());
+        assertEquals(Integer.valueOf(8080), uri.getPort());
+        assertEquals("/raml/v1", uri.getPath());
+        assertEquals("a=1&b&c=&a=2", uri.getQueryString());
+        assertEquals("https://user:pw@nidi.guru:8080", uri.getServer());
+        assertEquals("https://user:pw@nidi.guru:8080/raml/v1", uri.getUri());
+        final Values expected = valuesOf("a", new String[]{"1", "2"}, "c", "").addValue("b", null);
+        assertEquals(expected, uri.getQueryParameters());
+    }
+
+    @Test
+    public void ipv6() {
+        final UriComponents uri = UriComponents.fromHttpUrl("http://[fe80::1%25eth0]:80");
+        assertEquals("[fe80::1%25eth0]", uri.getHost());
+        assertEquals(Integer.valueOf(80), uri.getPort());
+        assertEquals("", uri.getPath());
+        assertNull(uri.getQueryString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noHost() {
+        UriComponents.fromHttpUrl("http:///path");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fragment() {
+        UriComponents.fromHttpUrl("http://host/path#frag");
+    }
+
+    @Test
+    public void userInfoWithQuestionMark() {
+        final UriComponents uri = UriComponents.fromHttpUrl("http://a?b@c#d");
+        assertNull(uri.getUserInfo());
+        assertEquals("a", uri.getHost());
+        assertEquals("b@c#d", uri.getQueryString());
+    }
+
+    @Test
+    public void equivalentToRegexUrlParsing() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            final String url = PREFIXES[random.nextInt(PREFIXES.length)] + randomString(random, 12);
+            assertSameUrl(url, RegexUriComponents.fromHttpUrl(url), parse(url));
+        }
+    }
+
+    @Test
+    public void equivalentToRegexQueryParsing() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final String query = randomString(random, 10);
+            assertEquals(query, RegexUriComponents.parseQuery(query), UriComponents.parseQuery(query));
+        }
+    }
+
+    private static String randomString(Random random, int maxLen) {
+        final int len = random.nextInt(maxLen + 1);
+        final StringBuilder s = new StringBuilder();
+        for (int i = 0; i < len; i++) {
+            s.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return s.toString();
+    }
+
+    private static UriComponents parse(String url) {
+        try {
+            return UriComponents.fromHttpUrl(url);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void assertSameUrl(String url, String[] expected, UriComponents actual) {
+        if (expected == null) {
+            assertNull(url, actual);
+        } else {
+            assertNotNull(url, actual);
+            assertArrayEquals(url, expected, new String[]{
+                    actual.getScheme(), actual.getUserInfo(), actual.getHost(),
+                    actual.getPort() == null ? null : actual.getPort().toString(), actual.getPath(), actual.getQueryString()});
+            assertEquals(url, RegexUriComponents.parseQuery(expected[5]), actual.getQueryParameters());
+        }
+    }
+
+    /**
+     * The original regex based implementation.
+     */
+    private static final class RegexUriComponents {
+        private static final String
+                HTTP = "(?i)(http|https):",
+                USERINFO = "([^@/]*)",
+                HOST_IPV4 = "[^\\[/?#:]*",
+                HOST_IPV6 = "\\[[\\p{XDigit}:\\.]*[%\\p{Alnum}]*\\]",
+                HOST = "(" + HOST_IPV6 + "|" + HOST_IPV4 + ")",
+                PORT = "(\\d*)",
+                PATH = "([^?#]*)",
+                LAST = "(.*)";
+
+        private static final Pattern
+                URL = Pattern.compile("^" + HTTP + "(//(" + USERINFO + "@)?" + HOST + "(:" + PORT + ")?" + ")?" + PATH + "(\\?" + LAST + ")?"),
+                QUERY_PARAM = Pattern.compile("([^&=]+)(=?)([^&]+)?");
+
+        private RegexUriComponents() {
+        }
+
+        static String[] fromHttpUrl(String httpUrl) {
+            final Matcher m = URL.matcher(httpUrl);
+            if (!m.matches()) {
+                return null;
+            }
+            final String scheme = m.group(1) == null ? null : m.group(1).toLowerCase(Locale.ENGLISH);
+            final String host = m.group(5);
+            if (scheme != null && scheme.length() > 0 && (host == null || host.length() == 0)) {
+                return null;
+            }
+            final String port = m.group(7);
+            try {
+                return new String[]{scheme, m.group(4), host,
+                        port != null && port.length() > 0 ? String.valueOf(Integer.parseInt(port)) : null, m.group(8), m.group(10)};
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        static Values parseQuery(String query) {
+            final Values q = new Values();
+            if (query != null) {
+                final Matcher m = QUERY_PARAM.matcher(query);
+                while (m.find()) {
+                    final String eq = m.group(2);
+                    final String value = m.group(3);
+                    q.addValue(m.group(1), value == null ? (eq != null && eq.length() > 0 ? "" : null) : value);
+                }
+            }
+            return q;
+        }
+    }
+}